@@ -0,0 +1,83 @@
+package org.common.service;
+
+import org.common.repository.ContactRepository;
+import org.common.repository.DuplicateContactRepository;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Builds the duplicate detection beans by hand, with the defaults from application.properties
+ * and mocked repositories, so benchmarks run without a Spring context or a database.
+ */
+final class BenchmarkWiring {
+
+    private BenchmarkWiring() {
+    }
+
+    static MatchRulePipeline matchRulePipeline() {
+        MatchRulePipeline pipeline = new MatchRulePipeline();
+        set(pipeline, "threshold", 0.75);
+        set(pipeline, "ruleNames", new String[] { "EMAIL_EXACT", "PHONE_EXACT", "NAME_FUZZY", "EMAIL_DOMAIN_NAME", "PHONE_FUZZY" });
+        set(pipeline, "emailExactScore", 1.0);
+        set(pipeline, "phoneExactScore", 0.95);
+        set(pipeline, "nameFuzzyWeight", 1.0);
+        set(pipeline, "emailDomainNameWeight", 0.8);
+        set(pipeline, "phoneContainmentScore", 0.85);
+        set(pipeline, "phoneLocalNumberScore", 0.8);
+        set(pipeline, "customRules", new ArrayList<MatchRule>());
+        pipeline.compile();
+        return pipeline;
+    }
+
+    static DuplicateBlockingKeys blockingKeys() {
+        return new DuplicateBlockingKeys(1000, 20, 3);
+    }
+
+    /**
+     * Detection service reading the given contacts from a mocked repository; saved pairs are discarded
+     */
+    static DuplicateDetectionService duplicateDetectionService(List<UserState> contacts, ContactFingerprintIndex fingerprintIndex) {
+        ContactRepository contactRepository = Mockito.mock(ContactRepository.class);
+        when(contactRepository.streamAll()).thenAnswer(invocation -> contacts.stream());
+
+        DuplicateContactRepository duplicateContactRepository = Mockito.mock(DuplicateContactRepository.class);
+        when(duplicateContactRepository.findAllPairs()).thenReturn(new ArrayList<>());
+        when(duplicateContactRepository.insertIgnoringExisting(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        DuplicateStatistics statistics = new DuplicateStatistics();
+        set(statistics, "duplicateContactRepository", duplicateContactRepository);
+
+        DuplicateDetectionService service = new DuplicateDetectionService();
+        set(service, "contactRepository", contactRepository);
+        set(service, "duplicateContactRepository", duplicateContactRepository);
+        set(service, "fingerprintIndex", fingerprintIndex);
+        set(service, "indexMaintainer", new ContactIndexMaintainer());
+        set(service, "blockingKeys", blockingKeys());
+        set(service, "statistics", statistics);
+        set(service, "matchRules", matchRulePipeline());
+        service.startScanPool();
+        return service;
+    }
+
+    static ContactFingerprintIndex fingerprintIndex() {
+        ContactFingerprintIndex index = new ContactFingerprintIndex();
+        set(index, "blockingKeys", blockingKeys());
+        return index;
+    }
+
+    static void set(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + fieldName + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
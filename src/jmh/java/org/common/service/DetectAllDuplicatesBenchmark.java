@@ -0,0 +1,47 @@
+package org.common.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end full scan (detectAllDuplicates) over synthetic datasets served by a mocked repository.
+ * Each iteration starts with an empty fingerprint cache, as after a restart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx8g" })
+public class DetectAllDuplicatesBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    private int contacts;
+
+    private ContactFingerprintIndex fingerprintIndex;
+    private DuplicateDetectionService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<UserState> dataset = SyntheticContacts.generate(contacts, 0.05, 42);
+        fingerprintIndex = BenchmarkWiring.fingerprintIndex();
+        service = BenchmarkWiring.duplicateDetectionService(dataset, fingerprintIndex);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearFingerprints() {
+        fingerprintIndex.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.stopScanPool();
+    }
+
+    @Benchmark
+    public List<DuplicateContact> detectAllDuplicates() {
+        return service.detectAllDuplicates();
+    }
+}
@@ -0,0 +1,85 @@
+package org.common.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scoring one pair of contacts (findDuplicateMatch), for the pairs a scan actually sees:
+ * unrelated contacts sharing a blocking key, and near-duplicates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchRuleBenchmark {
+
+    private static final int PAIRS = 4096;
+
+    private MatchRulePipeline pipeline;
+    private ContactFingerprint[] firsts;
+    private ContactFingerprint[] seconds;
+    private ContactFingerprint[] duplicateFirsts;
+    private ContactFingerprint[] duplicateSeconds;
+
+    @Setup
+    public void setUp() {
+        pipeline = BenchmarkWiring.matchRulePipeline();
+
+        // Candidate pairs as produced by the blocking keys, mostly non-matching
+        List<UserState> contacts = SyntheticContacts.generate(20_000, 0.05, 42);
+        ContactFingerprint[] fingerprints = contacts.stream().map(ContactFingerprint::of).toArray(ContactFingerprint[]::new);
+        long[] pairs = BenchmarkWiring.blockingKeys().candidatePairs(List.of(fingerprints));
+        Random random = new Random(7);
+        firsts = new ContactFingerprint[PAIRS];
+        seconds = new ContactFingerprint[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            long pair = pairs[random.nextInt(pairs.length)];
+            firsts[i] = fingerprints[(int) (pair >>> 32)];
+            seconds[i] = fingerprints[(int) pair];
+        }
+
+        // Pairs that do match, mostly decided by the fuzzy rules
+        duplicateFirsts = new ContactFingerprint[PAIRS];
+        duplicateSeconds = new ContactFingerprint[PAIRS];
+        int found = 0;
+        for (int i = 0; found < PAIRS && i < pairs.length; i++) {
+            ContactFingerprint first = fingerprints[(int) (pairs[i] >>> 32)];
+            ContactFingerprint second = fingerprints[(int) pairs[i]];
+            if (pipeline.evaluate(first, second).isMatch()) {
+                duplicateFirsts[found] = first;
+                duplicateSeconds[found] = second;
+                found++;
+            }
+        }
+        if (found == 0) {
+            throw new IllegalStateException("No matching pairs among " + pairs.length
+                + " candidate pairs of the synthetic contacts; check SyntheticContacts and the match rules");
+        }
+        for (int i = found; i < PAIRS; i++) {
+            duplicateFirsts[i] = duplicateFirsts[i % found];
+            duplicateSeconds[i] = duplicateSeconds[i % found];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void findDuplicateMatchCandidatePairs(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(pipeline.evaluate(firsts[i], seconds[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void findDuplicateMatchDuplicatePairs(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(pipeline.evaluate(duplicateFirsts[i], duplicateSeconds[i]));
+        }
+    }
+}
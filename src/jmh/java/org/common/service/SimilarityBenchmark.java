@@ -0,0 +1,65 @@
+package org.common.service;
+
+import org.common.util.EditDistance;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The similarity kernels on their own: Levenshtein distance (exact and bounded by the match threshold)
+ * on full names, and Jaccard similarity on name word sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimilarityBenchmark {
+
+    private static final int PAIRS = 4096;
+    private static final double MATCH_THRESHOLD = 0.75;
+
+    private ContactFingerprint[] firsts;
+    private ContactFingerprint[] seconds;
+
+    @Setup
+    public void setUp() {
+        List<UserState> contacts = SyntheticContacts.generate(PAIRS * 2, 0.2, 11);
+        Random random = new Random(3);
+        firsts = new ContactFingerprint[PAIRS];
+        seconds = new ContactFingerprint[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            firsts[i] = ContactFingerprint.of(contacts.get(random.nextInt(contacts.size())));
+            seconds[i] = ContactFingerprint.of(contacts.get(random.nextInt(contacts.size())));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void levenshteinDistance(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(EditDistance.distance(firsts[i].getFullName(), seconds[i].getFullName()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void levenshteinScoreBounded(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(ContactSimilarity.boundedLevenshteinScore(
+                firsts[i].getFullName(), seconds[i].getFullName(), MATCH_THRESHOLD));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void calculateJaccardSimilarity(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(ContactSimilarity.jaccardSimilarity(firsts[i].getNameWords(), seconds[i].getNameWords()));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.common.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic contact data for the benchmarks.
+ *
+ * Names mix common ones, drawn with a skew towards the front of the list, with generated ones
+ * for a realistic spread. Most contacts have an email derived from their name and a phone number
+ * in one of several formats, and a share of the contacts are copies of earlier ones with a typo,
+ * a different email case or a reformatted phone.
+ */
+final class SyntheticContacts {
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+        "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty", "Anthony", "Margaret", "Mark", "Sandra",
+        "Priya", "Rahul", "Ananya", "Arjun", "Karthik", "Divya", "Wei", "Mei", "Jose", "Maria"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+        "Kumar", "Sharma", "Iyer", "Reddy", "Nair", "Chen", "Wang", "Li", "Nguyen", "Van Der Berg"
+    };
+
+    private static final String[] SYLLABLES = {
+        "ka", "ri", "mo", "len", "dar", "so", "vin", "tha", "be", "rou", "gal", "ne", "shi", "to", "mar", "el",
+        "an", "bro", "cu", "dey", "fen", "gi", "hal", "jo", "kes", "lor", "mi", "nu", "per", "qua", "ros", "sta",
+        "tri", "ul", "ver", "wen", "xa", "yu", "zel", "ost"
+    };
+
+    private static final String[] MIDDLE_NAMES = { "A", "J.", "Marie", "Lee", "Ann", "Kumar" };
+
+    private static final String[] DOMAINS = {
+        "gmail.com", "yahoo.com", "outlook.com", "hotmail.com", "icloud.com", "example.org", "acme-corp.com"
+    };
+
+    private SyntheticContacts() {
+    }
+
+    /**
+     * Generate contacts with ids 1..count, of which roughly duplicateRate are near-copies of earlier contacts
+     */
+    static List<UserState> generate(int count, double duplicateRate, long seed) {
+        Random random = new Random(seed);
+        List<UserState> contacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UserState contact;
+            if (!contacts.isEmpty() && random.nextDouble() < duplicateRate) {
+                contact = perturb(contacts.get(random.nextInt(contacts.size())), random);
+            } else {
+                contact = create(random);
+            }
+            contact.setId((long) i + 1);
+            contacts.add(contact);
+        }
+        return contacts;
+    }
+
+    private static UserState create(Random random) {
+        String firstName = random.nextInt(10) < 3 ? inventedName(random) : skewed(FIRST_NAMES, random);
+        String lastName = random.nextInt(10) < 8 ? inventedName(random) : skewed(LAST_NAMES, random);
+
+        UserState contact = new UserState();
+        contact.setFirstName(firstName);
+        contact.setLastName(lastName);
+        if (random.nextInt(10) < 3) {
+            contact.setMiddleName(MIDDLE_NAMES[random.nextInt(MIDDLE_NAMES.length)]);
+        }
+        if (random.nextInt(100) < 85) {
+            contact.setEmailAddress(email(firstName, lastName, random));
+        }
+        if (random.nextInt(100) < 80) {
+            contact.setMobileNumber(format(randomDigits(random), random));
+        }
+        return contact;
+    }
+
+    /**
+     * A copy with the kinds of differences real duplicates have
+     */
+    private static UserState perturb(UserState original, Random random) {
+        UserState copy = new UserState();
+        copy.setFirstName(random.nextBoolean() ? typo(original.getFirstName(), random) : original.getFirstName());
+        copy.setMiddleName(random.nextBoolean() ? original.getMiddleName() : null);
+        copy.setLastName(random.nextInt(4) == 0 ? typo(original.getLastName(), random) : original.getLastName());
+
+        String email = original.getEmailAddress();
+        if (email != null) {
+            int variant = random.nextInt(4);
+            if (variant == 0) {
+                email = email.toUpperCase(Locale.ROOT);
+            } else if (variant == 1) {
+                email = null;
+            } else if (variant == 2) {
+                email = email(copy.getFirstName(), copy.getLastName(), random);
+            }
+        }
+        copy.setEmailAddress(email);
+
+        String phone = original.getMobileNumber();
+        if (phone != null && random.nextBoolean()) {
+            phone = format(phone.replaceAll("[^0-9]", ""), random);
+        }
+        copy.setMobileNumber(phone);
+        return copy;
+    }
+
+    private static String skewed(String[] values, Random random) {
+        // Favours the front of the array, like real name frequencies
+        return values[random.nextInt(random.nextInt(values.length) + 1)];
+    }
+
+    private static String inventedName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    private static String email(String firstName, String lastName, Random random) {
+        String local = (firstName + "." + lastName).replace(" ", "").toLowerCase(Locale.ROOT);
+        if (random.nextBoolean()) {
+            local += random.nextInt(100);
+        }
+        return local + "@" + DOMAINS[random.nextInt(DOMAINS.length)];
+    }
+
+    private static String randomDigits(Random random) {
+        StringBuilder digits = new StringBuilder(10);
+        digits.append((char) ('6' + random.nextInt(4)));
+        for (int i = 1; i < 10; i++) {
+            digits.append((char) ('0' + random.nextInt(10)));
+        }
+        return digits.toString();
+    }
+
+    private static String format(String digits, Random random) {
+        String local = digits.length() > 10 ? digits.substring(digits.length() - 10) : digits;
+        if (local.length() < 10) {
+            return digits;
+        }
+        switch (random.nextInt(4)) {
+            case 0:
+                return "+91 " + local.substring(0, 5) + "-" + local.substring(5);
+            case 1:
+                return "(" + local.substring(0, 3) + ") " + local.substring(3, 6) + "-" + local.substring(6);
+            case 2:
+                return "0" + local;
+            default:
+                return local;
+        }
+    }
+
+    private static String typo(String value, Random random) {
+        if (value == null || value.length() < 3) {
+            return value;
+        }
+        StringBuilder typo = new StringBuilder(value);
+        int position = 1 + random.nextInt(value.length() - 2);
+        switch (random.nextInt(3)) {
+            case 0:
+                typo.deleteCharAt(position);
+                break;
+            case 1:
+                char swap = typo.charAt(position);
+                typo.setCharAt(position, typo.charAt(position + 1));
+                typo.setCharAt(position + 1, swap);
+                break;
+            default:
+                typo.insert(position, typo.charAt(position));
+                break;
+        }
+        return typo.toString();
+    }
+}
@@ -6,6 +6,7 @@ import org.common.service.UserState;
 import org.common.util.APIMessages;
 import org.common.util.ApiResponse;
 import org.common.util.CommonUtility;
+import org.common.util.ContactIdGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -43,6 +44,9 @@ public class CategoryResource {
     @Autowired
     CategoryRepository categoryRepository;
 
+    @Autowired
+    ContactIdGenerator idGenerator;
+
     private <T> ResponseEntity<ApiResponse<T>> buildResponse(boolean success, String message, T data, HttpStatus status) {
         return new ResponseEntity<>(new ApiResponse<>(success, message, data), status);
     }
@@ -56,7 +60,7 @@ public class CategoryResource {
         Category category = CommonUtility.buildCategoryFromRequest(request);
 
         // Set generated long ID
-        category.setCategoryId(CommonUtility.generateUniqueContactId());
+        category.setCategoryId(idGenerator.nextId());
 
         Category savedCategory = categoryRepository.save(category);
 
@@ -1,20 +1,46 @@
 package org.common.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.common.repository.ContactRepository;
+import org.common.service.ContactBatchService;
+import org.common.service.ContactCategoryIndex;
+import org.common.service.ContactChangedEvent;
+import org.common.service.ContactExportService;
+import org.common.service.ContactFavouriteIndex;
+import org.common.service.ContactImportService;
+import org.common.service.ContactIndexMaintainer;
+import org.common.service.ContactPatch;
+import org.common.service.ContactSearchIndex;
+import org.common.service.ContactSuggestIndex;
 import org.common.service.UserState;
 import org.common.util.APIMessages;
 import org.common.util.ApiResponse;
 import org.common.util.CommonUtility;
+import org.common.util.ContactIdGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for managing contact information.
@@ -22,8 +48,9 @@ import java.util.stream.Collectors;
  * This class exposes endpoints for:
  * - Creating a new contact
  * - Retrieving a contact by ID
- * - Retrieving all contacts
+ * - Retrieving all contacts (keyset pages, or streamed as NDJSON)
  * - Searching for contacts by fields
+ * - Suggesting contacts for a name or email prefix
  * - Updating an existing contact
  * - Deleting a contact
  *
@@ -35,9 +62,49 @@ import java.util.stream.Collectors;
 @RequestMapping("/contacts")
 public class ContactResource {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String TEXT_VCARD_VALUE = "text/vcard";
+
     @Autowired
     private ContactRepository contactRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ContactIdGenerator idGenerator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContactImportService importService;
+
+    @Autowired
+    private ContactExportService exportService;
+
+    @Autowired
+    private ContactBatchService batchService;
+
+    @Autowired
+    private ContactSearchIndex searchIndex;
+
+    @Autowired
+    private ContactSuggestIndex suggestIndex;
+
+    @Autowired
+    private ContactCategoryIndex categoryIndex;
+
+    @Autowired
+    private ContactFavouriteIndex favouriteIndex;
+
+    @Autowired
+    private ContactIndexMaintainer indexMaintainer;
+
     // Centralized response builder
     private <T> ResponseEntity<ApiResponse<T>> buildResponse(boolean success, String message, T data, HttpStatus status) {
         return new ResponseEntity<>(new ApiResponse<>(success, message, data), status);
@@ -58,9 +125,10 @@ public class ContactResource {
         UserState userState = CommonUtility.buildContactFromRequest(request);
 
         // Set generated long ID
-        userState.setId(CommonUtility.generateUniqueContactId());
+        userState.setId(idGenerator.nextId());
 
         UserState savedContact = contactRepository.save(userState);
+        eventPublisher.publishEvent(ContactChangedEvent.created(savedContact));
 
         Map<String, String> data = Map.of(
                 "contactId", String.valueOf(savedContact.getId()),
@@ -71,6 +139,38 @@ public class ContactResource {
                 buildResponse(true, APIMessages.SUCCESS_MESSAGE, data, HttpStatus.OK));
     }
 
+    // Bulk import from a CSV upload (header row required); the body is parsed as it arrives
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<ApiResponse<Map<String, Object>>> importCsv(InputStream body) throws IOException {
+        try {
+            return importResponse(importService.importCsv(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            return buildResponse(false, e.getMessage(), null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Bulk import from a vCard upload holding any number of cards
+    @PostMapping(value = "/import", consumes = { TEXT_VCARD_VALUE, "text/x-vcard" })
+    public ResponseEntity<ApiResponse<Map<String, Object>>> importVCard(InputStream body) throws IOException {
+        try {
+            return importResponse(importService.importVCard(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            return buildResponse(false, e.getMessage(), null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private ResponseEntity<ApiResponse<Map<String, Object>>> importResponse(ContactImportService.ImportResult result) {
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("imported", result.getImported());
+        responseData.put("failed", result.getFailed());
+        responseData.put("errors", result.getErrors());
+        responseData.put("errorsTruncated", result.isErrorsTruncated());
+
+        boolean success = result.getFailed() == 0;
+        String message = success ? "Contacts imported successfully" : "Contacts imported with errors";
+        return buildResponse(success, message, responseData, HttpStatus.OK);
+    }
+
     // Get Contact by ID
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<Map<String, String>>> getContactById(@PathVariable Long id) {
@@ -79,10 +179,27 @@ public class ContactResource {
                 .orElseGet(() -> buildResponse(false, APIMessages.CONTACT_NOT_FOUND_ERROR, null, HttpStatus.NOT_FOUND));
     }
 
-    // Get All Contacts
+    // Get All Contacts. With "after" or "limit", one keyset page at a time: pass the returned
+    // nextCursor as "after". Without either, every contact in one response, as before paging existed.
     @GetMapping("/all")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllContacts() {
-        List<UserState> contacts = (List<UserState>) contactRepository.findAll();
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllContacts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return getEveryContact();
+        }
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return buildResponse(false, "limit must be between 1 and " + MAX_PAGE_SIZE, null, HttpStatus.BAD_REQUEST);
+        }
+
+        // One extra row tells whether another page follows
+        List<UserState> contacts = contactRepository.findPageAfter(
+                after != null ? after : Long.MIN_VALUE, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = contacts.size() > pageSize;
+        if (hasMore) {
+            contacts = contacts.subList(0, pageSize);
+        }
 
         if (contacts.isEmpty()) {
             return buildResponse(false, "No contacts found", null, HttpStatus.NOT_FOUND);
@@ -96,21 +213,109 @@ public class ContactResource {
         Map<String, Object> responseData = new HashMap<>();
         responseData.put("count", contactList.size());
         responseData.put("contacts", contactList);
+        responseData.put("hasMore", hasMore);
+        if (hasMore) {
+            responseData.put("nextCursor", String.valueOf(contacts.get(contacts.size() - 1).getId()));
+        }
 
         return buildResponse(true, "Contacts fetched successfully", responseData, HttpStatus.OK);
     }
 
-    // Search Contacts by firstName, lastName, emailAddress
+    private ResponseEntity<ApiResponse<Map<String, Object>>> getEveryContact() {
+        List<Map<String, String>> contactList;
+        try (Stream<UserState> contacts = contactRepository.streamAll()) {
+            contactList = contacts.map(CommonUtility::contactToMap).collect(Collectors.toList());
+        }
+
+        if (contactList.isEmpty()) {
+            return buildResponse(false, "No contacts found", null, HttpStatus.NOT_FOUND);
+        }
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("count", contactList.size());
+        responseData.put("contacts", contactList);
+        return buildResponse(true, "Contacts fetched successfully", responseData, HttpStatus.OK);
+    }
+
+    // Stream every contact as newline-delimited JSON (Accept: application/x-ndjson); pages are
+    // read and detached one at a time, so memory use does not grow with the table
+    @GetMapping(value = "/all", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllContacts() {
+        StreamingResponseBody body = output -> {
+            try (Stream<UserState> contacts = contactRepository.streamAll();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                Iterator<UserState> iterator = contacts.iterator();
+                while (iterator.hasNext()) {
+                    generator.writeObject(CommonUtility.contactToMap(iterator.next()));
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
+    // Export contacts matching the filters as csv, vcard or ndjson, optionally gzipped; rows are
+    // streamed from the database to the response, so memory use does not grow with the export
+    @GetMapping("/export")
+    public ResponseEntity<?> exportContacts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(defaultValue = "false") boolean favourites,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime modifiedSince) {
+        ContactExportService.Format exportFormat;
+        try {
+            exportFormat = ContactExportService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return buildResponse(false, "format must be one of csv, vcard or ndjson", null, HttpStatus.BAD_REQUEST);
+        }
+        List<String> allCategories = all != null ? all : Collections.emptyList();
+        List<String> anyCategories = any != null ? any : Collections.emptyList();
+
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, 64 * 1024);
+                exportService.export(exportFormat, allCategories, anyCategories, favourites, modifiedSince, compressed);
+                compressed.finish();
+            } else {
+                exportService.export(exportFormat, allCategories, anyCategories, favourites, modifiedSince, output);
+            }
+        };
+
+        String fileName = "contacts." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    // Search Contacts by firstName, lastName, emailAddress (case-insensitive substring, best matches first)
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<Map<String, String>>>> searchContactsByFields(
             @RequestParam(required = false) String firstName,
             @RequestParam(required = false) String lastName,
-            @RequestParam(required = false) String emailAddress) {
-        List<UserState> contacts = contactRepository.searchByFields(
-                firstName != null && !firstName.isBlank() ? firstName.trim() : null,
-                lastName != null && !lastName.isBlank() ? lastName.trim() : null,
-                emailAddress != null && !emailAddress.isBlank() ? emailAddress.trim() : null
-        );
+            @RequestParam(required = false) String emailAddress,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return buildResponse(false, "limit must be between 1 and " + MAX_PAGE_SIZE, null, HttpStatus.BAD_REQUEST);
+        }
+
+        firstName = firstName != null && !firstName.isBlank() ? firstName.trim() : null;
+        lastName = lastName != null && !lastName.isBlank() ? lastName.trim() : null;
+        emailAddress = emailAddress != null && !emailAddress.isBlank() ? emailAddress.trim() : null;
+
+        List<UserState> contacts;
+        if (indexMaintainer.isReady()) {
+            // Served from the in-memory trigram index; only the matching rows are loaded
+            List<Long> ids = searchIndex.search(firstName, lastName, emailAddress, limit);
+            Map<Long, UserState> loaded = new HashMap<>();
+            contactRepository.findAllById(ids).forEach(contact -> loaded.put(contact.getId(), contact));
+            contacts = ids.stream().map(loaded::get).filter(Objects::nonNull).collect(Collectors.toList());
+        } else {
+            contacts = contactRepository.searchByFields(firstName, lastName, emailAddress);
+            contacts = contacts.subList(0, Math.min(limit, contacts.size()));
+        }
 
         if (contacts.isEmpty()) {
             return buildResponse(false, "No matching contacts found", null, HttpStatus.NOT_FOUND);
@@ -122,6 +327,33 @@ public class ContactResource {
         return buildResponse(true, "Contacts matched successfully", result, HttpStatus.OK);
     }
 
+    // Type-ahead suggestions for a name or email prefix, favourites first; served from memory
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<Map<String, String>>>> suggestContacts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank()) {
+            return buildResponse(false, "prefix must not be blank", null, HttpStatus.BAD_REQUEST);
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            return buildResponse(false, "limit must be between 1 and " + MAX_SUGGESTIONS, null, HttpStatus.BAD_REQUEST);
+        }
+        if (!indexMaintainer.isReady()) {
+            return buildResponse(false, "Suggestions are still loading", null, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        List<Map<String, String>> result = new ArrayList<>();
+        for (ContactSuggestIndex.Suggestion suggestion : suggestIndex.suggest(prefix, limit)) {
+            Map<String, String> data = new HashMap<>();
+            data.put("ContactId", String.valueOf(suggestion.getId()));
+            data.put("name", suggestion.getName());
+            data.put("emailAddress", suggestion.getEmailAddress());
+            data.put("favorites", String.valueOf(suggestion.isFavorite()));
+            result.add(data);
+        }
+        return buildResponse(true, "Suggestions fetched successfully", result, HttpStatus.OK);
+    }
+
     @PutMapping("/update/{id}")
     public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> updateContact(
             @PathVariable Long id, @Valid @RequestBody UserState request) {
@@ -143,6 +375,7 @@ public class ContactResource {
 
         // Save updated contact and get the persisted entity
         UserState updatedContact = contactRepository.save(userState);
+        eventPublisher.publishEvent(ContactChangedEvent.updated(updatedContact));
 
         Map<String, String> data = Map.of(
                 "contactId", String.valueOf(updatedContact.getId()),
@@ -162,61 +395,171 @@ public class ContactResource {
         }
 
         contactRepository.deleteById(id);
+        eventPublisher.publishEvent(ContactChangedEvent.deleted(id));
         Map<String, String> data = Map.of("contactId", String.valueOf(id), "status", "deleted");
         return CompletableFuture.completedFuture(
                 buildResponse(true, "Contact deleted successfully", data, HttpStatus.OK));
     }
 
+    // Apply a list of partial updates in one transaction; the outcome of each patch is returned in order
+    @PostMapping("/batch/update")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> updateContacts(@RequestBody List<ContactPatch> patches) {
+        try {
+            return batchResponse(batchService.updateContacts(patches), "updated");
+        } catch (IllegalArgumentException e) {
+            return buildResponse(false, e.getMessage(), null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Delete a list of contacts in one transaction; the outcome of each id is returned in order
+    @PostMapping("/batch/delete")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> deleteContacts(@RequestBody List<Long> ids) {
+        try {
+            return batchResponse(batchService.deleteContacts(ids), "deleted");
+        } catch (IllegalArgumentException e) {
+            return buildResponse(false, e.getMessage(), null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private ResponseEntity<ApiResponse<Map<String, Object>>> batchResponse(List<Map<String, String>> outcomes, String doneStatus) {
+        long done = outcomes.stream().filter(outcome -> doneStatus.equals(outcome.get("status"))).count();
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put(doneStatus, done);
+        responseData.put("failed", outcomes.size() - done);
+        responseData.put("results", outcomes);
+
+        boolean success = done == outcomes.size();
+        String message = success ? "Contacts " + doneStatus + " successfully" : "Some contacts were not " + doneStatus;
+        return buildResponse(success, message, responseData, HttpStatus.OK);
+    }
+
     // Centralized exception handling
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Object>> handleException(Exception e) {
         return buildResponse(false, "An unexpected error occurred: " + e.getMessage(), null, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-    // List contact based on category
+    // List contacts in a category, one page at a time in id order: pass the returned nextCursor as "after"
     @GetMapping("/category/{id}")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllContactsByCategory(@PathVariable Long id) {
-        String categoryId = String.valueOf(id);
-
-        List<Map<String, String>> filteredContacts = ((List<UserState>) contactRepository.findAll()).stream()
-                .filter(c -> c.getCategories() != null &&
-                        c.getCategories().stream()
-                                .map(String::trim)
-                                .anyMatch(cat -> cat.equals(categoryId)))
-                .map(CommonUtility::contactToMap)
-                .toList();
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllContactsByCategory(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return listContacts(List.of(String.valueOf(id)), Collections.emptyList(), false, after, limit);
+    }
 
-        if (filteredContacts.isEmpty()) {
-            return buildResponse(false, "No contacts found in this category", null, HttpStatus.NOT_FOUND);
+    // List contacts in every category of "all" and at least one of "any", e.g. ?all=1,2&any=3
+    @GetMapping("/category")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getContactsByCategories(
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        all = all != null ? all : Collections.emptyList();
+        any = any != null ? any : Collections.emptyList();
+        if (all.stream().allMatch(String::isBlank) && any.stream().allMatch(String::isBlank)) {
+            return buildResponse(false, "At least one of all or any must name a category", null, HttpStatus.BAD_REQUEST);
         }
-
-        // Wrap count and data together
-        Map<String, Object> responseData = new HashMap<>();
-        responseData.put("count", filteredContacts.size());
-        responseData.put("contacts", filteredContacts);
-
-        return buildResponse(true, "Contacts fetched successfully", responseData, HttpStatus.OK);
+        return listContacts(all, any, false, after, limit);
     }
 
-    @GetMapping("/favourite")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllFavouriteContacts() {
-        List<UserState> allContacts = (List<UserState>) contactRepository.findAll();
+    /**
+     * One id-ordered page of the contacts matching the category filter (ignored when both lists are
+     * empty) and, if favouritesOnly, flagged as favourite. Served from the in-memory indexes, loading
+     * only the rows of the page; while they are still loading, the contact stream is filtered instead.
+     */
+    private ResponseEntity<ApiResponse<Map<String, Object>>> listContacts(
+            List<String> all, List<String> any, boolean favouritesOnly, Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return buildResponse(false, "limit must be between 1 and " + MAX_PAGE_SIZE, null, HttpStatus.BAD_REQUEST);
+        }
+        long afterId = after != null ? after : Long.MIN_VALUE;
+        Set<String> required = trimmed(all);
+        Set<String> optional = trimmed(any);
+        boolean byCategory = !required.isEmpty() || !optional.isEmpty();
+
+        // One extra row tells whether another page follows
+        List<UserState> contacts;
+        boolean hasMore;
+        Long nextCursor = null;
+        Integer totalCount = null;
+        if (indexMaintainer.isReady()) {
+            List<Long> pageIds;
+            if (byCategory) {
+                pageIds = categoryIndex.page(required, optional, afterId, limit + 1,
+                        id -> !favouritesOnly || favouriteIndex.contains(id));
+            } else {
+                totalCount = favouriteIndex.size();
+                pageIds = favouriteIndex.page(afterId, limit + 1);
+            }
+            // Decided on the ids, so contacts deleted since they were indexed do not end the paging
+            hasMore = pageIds.size() > limit;
+            if (hasMore) {
+                pageIds = pageIds.subList(0, limit);
+                nextCursor = pageIds.get(limit - 1);
+            }
+            Map<Long, UserState> loaded = new HashMap<>();
+            contactRepository.findAllById(pageIds).forEach(contact -> loaded.put(contact.getId(), contact));
+            contacts = pageIds.stream().map(loaded::get).filter(Objects::nonNull).collect(Collectors.toList());
+        } else {
+            try (Stream<UserState> stream = contactRepository.streamAll()) {
+                contacts = stream
+                        .filter(c -> c.getId() > afterId)
+                        .filter(c -> !favouritesOnly || c.isFavorites())
+                        .filter(c -> !byCategory || ContactCategoryIndex.matches(c, required, optional))
+                        .limit(limit + 1L)
+                        .collect(Collectors.toList());
+            }
+            hasMore = contacts.size() > limit;
+            if (hasMore) {
+                contacts = contacts.subList(0, limit);
+                nextCursor = contacts.get(limit - 1).getId();
+            }
+        }
+
+        if (contacts.isEmpty() && !hasMore) {
+            String message = favouritesOnly ? "No favourite contacts found" : "No contacts found in this category";
+            return buildResponse(false, message, null, HttpStatus.NOT_FOUND);
+        }
 
-        List<Map<String, String>> favouriteContacts = allContacts.stream()
-                .filter(UserState::isFavorites)
+        List<Map<String, String>> contactList = contacts.stream()
                 .map(CommonUtility::contactToMap)
                 .collect(Collectors.toList());
 
-        if (favouriteContacts.isEmpty()) {
-            return buildResponse(false, "No favourite contacts found", null, HttpStatus.NOT_FOUND);
+        // Wrap count and data together
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("count", contactList.size());
+        responseData.put("contacts", contactList);
+        responseData.put("hasMore", hasMore);
+        if (totalCount != null) {
+            responseData.put("totalCount", totalCount);
+        }
+        if (hasMore) {
+            responseData.put("nextCursor", String.valueOf(nextCursor));
         }
 
-        // Create a response data map with count and contacts
-        Map<String, Object> responseData = new HashMap<>();
-        responseData.put("count", favouriteContacts.size());
-        responseData.put("contacts", favouriteContacts);
+        String message = favouritesOnly ? "Favourite contacts fetched successfully" : "Contacts fetched successfully";
+        return buildResponse(true, message, responseData, HttpStatus.OK);
+    }
 
-        return buildResponse(true, "Favourite contacts fetched successfully", responseData, HttpStatus.OK);
+    private static Set<String> trimmed(Collection<String> values) {
+        return values.stream()
+                .filter(value -> value != null && !value.isBlank())
+                .map(String::trim)
+                .collect(Collectors.toSet());
+    }
+
+    // List favourite contacts one page at a time in id order, optionally narrowed by category
+    // (same all/any parameters as /category); pass the returned nextCursor as "after"
+    @GetMapping("/favourite")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllFavouriteContacts(
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return listContacts(all != null ? all : Collections.emptyList(),
+                any != null ? any : Collections.emptyList(), true, after, limit);
     }
 
 }
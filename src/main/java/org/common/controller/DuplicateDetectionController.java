@@ -2,16 +2,29 @@ package org.common.controller;
 
 import org.common.repository.ContactRepository;
 import org.common.repository.DuplicateContactRepository;
+import org.common.service.ContactChangedEvent;
+import org.common.service.DuplicateCluster;
+import org.common.service.DuplicateClusterService;
 import org.common.service.DuplicateContact;
 import org.common.service.DuplicateDetectionService;
+import org.common.service.DuplicateScanJob;
+import org.common.service.DuplicateScanJobService;
+import org.common.service.DuplicateStatistics;
 import org.common.service.UserState;
 import org.common.util.ApiResponse;
 import org.common.util.CommonUtility;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,44 +32,42 @@ import java.util.stream.Collectors;
 @RequestMapping("/contacts/duplicates")
 public class DuplicateDetectionController {
     
+    private static final int MAX_PAGE_SIZE = 1000;
+    
     @Autowired
     private DuplicateDetectionService duplicateDetectionService;
     
+    @Autowired
+    private DuplicateScanJobService duplicateScanJobService;
+    
+    @Autowired
+    private DuplicateStatistics duplicateStatistics;
+    
+    @Autowired
+    private DuplicateClusterService duplicateClusterService;
+    
     @Autowired
     private DuplicateContactRepository duplicateContactRepository;
     
     @Autowired
     private ContactRepository contactRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     private <T> ResponseEntity<ApiResponse<T>> buildResponse(boolean success, String message, T data, HttpStatus status) {
         return new ResponseEntity<>(new ApiResponse<>(success, message, data), status);
     }
     
     /**
-     * Scan all contacts and detect duplicates
+     * Start a background scan of all contacts and return the job to poll.
+     * While a scan is queued or running, the existing job is returned instead of starting another.
      */
     @PostMapping("/scan")
     public ResponseEntity<ApiResponse<Map<String, Object>>> scanForDuplicates() {
         try {
-            List<DuplicateContact> duplicates = duplicateDetectionService.detectAllDuplicates();
-            
-            Map<String, Object> responseData = new HashMap<>();
-            responseData.put("duplicatesFound", duplicates.size());
-            responseData.put("status", "scan_completed");
-            
-            if (duplicates.isEmpty()) {
-                responseData.put("message", "No duplicates found in your contacts");
-                return buildResponse(true, "Duplicate scan completed", responseData, HttpStatus.OK);
-            }
-            
-            // Group duplicates by match type for summary
-            Map<String, Long> matchTypeCounts = duplicates.stream()
-                .collect(Collectors.groupingBy(DuplicateContact::getMatchType, Collectors.counting()));
-            
-            responseData.put("matchTypes", matchTypeCounts);
-            responseData.put("message", "Potential duplicates detected");
-            
-            return buildResponse(true, "Duplicate scan completed", responseData, HttpStatus.OK);
+            DuplicateScanJob job = duplicateScanJobService.submit();
+            return buildResponse(true, "Duplicate scan accepted", job.toMap(), HttpStatus.ACCEPTED);
             
         } catch (Exception e) {
             Map<String, Object> errorData = Map.of("error", e.getMessage());
@@ -65,12 +76,68 @@ public class DuplicateDetectionController {
     }
     
     /**
-     * Get all pending duplicate pairs with contact details
+     * Progress (pairs compared, matches, ETA) and, once finished, the result of a scan job
+     */
+    @GetMapping("/scan/{jobId}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getScanProgress(@PathVariable String jobId) {
+        return duplicateScanJobService.find(jobId)
+            .map(job -> buildResponse(true, "Duplicate scan " + job.getStatus().name().toLowerCase(), job.toMap(), HttpStatus.OK))
+            .orElseGet(() -> buildResponse(false, "Scan job not found", null, HttpStatus.NOT_FOUND));
+    }
+    
+    /**
+     * Stream scan progress as server-sent events until the job finishes
+     */
+    @GetMapping(value = "/scan/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamScanProgress(@PathVariable String jobId) throws IOException {
+        Optional<DuplicateScanJob> job = duplicateScanJobService.find(jobId);
+        if (job.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Scan job not found");
+        }
+        return duplicateScanJobService.streamProgress(job.get());
+    }
+    
+    /**
+     * Cancel a queued or running scan job
+     */
+    @PostMapping("/scan/{jobId}/cancel")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> cancelScan(@PathVariable String jobId) {
+        return duplicateScanJobService.cancel(jobId)
+            .map(job -> buildResponse(true, "Duplicate scan cancellation requested", job.toMap(), HttpStatus.OK))
+            .orElseGet(() -> buildResponse(false, "Scan job not found", null, HttpStatus.NOT_FOUND));
+    }
+    
+    /**
+     * Get pending duplicate pairs with contact details, highest score first.
+     * Pages are keyset-based: pass the returned nextCursor to fetch the following page.
      */
     @GetMapping("/pending")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getPendingDuplicates() {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getPendingDuplicates(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
         try {
-            List<DuplicateContact> pendingDuplicates = duplicateContactRepository.findPendingDuplicates();
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return buildResponse(false, "limit must be between 1 and " + MAX_PAGE_SIZE, null, HttpStatus.BAD_REQUEST);
+            }
+            
+            // One extra row tells whether another page follows
+            Pageable page = PageRequest.of(0, limit + 1);
+            List<DuplicateContact> pendingDuplicates;
+            if (cursor == null || cursor.isBlank()) {
+                pendingDuplicates = duplicateContactRepository.findPendingDuplicates(page);
+            } else {
+                String[] position = cursor.split("_", 2);
+                if (position.length != 2) {
+                    return buildResponse(false, "Invalid cursor", null, HttpStatus.BAD_REQUEST);
+                }
+                pendingDuplicates = duplicateContactRepository.findPendingDuplicatesAfter(
+                    Double.valueOf(position[0]), Long.valueOf(position[1]), page);
+            }
+            
+            boolean hasMore = pendingDuplicates.size() > limit;
+            if (hasMore) {
+                pendingDuplicates = pendingDuplicates.subList(0, limit);
+            }
             
             if (pendingDuplicates.isEmpty()) {
                 Map<String, Object> responseData = Map.of(
@@ -81,13 +148,22 @@ public class DuplicateDetectionController {
                 return buildResponse(true, "No pending duplicates", responseData, HttpStatus.OK);
             }
             
+            // Fetch every contact on the page with a single IN query
+            Set<Long> contactIds = new HashSet<>();
+            for (DuplicateContact duplicate : pendingDuplicates) {
+                contactIds.add(duplicate.getContact1Id());
+                contactIds.add(duplicate.getContact2Id());
+            }
+            Map<Long, UserState> contacts = new HashMap<>();
+            contactRepository.findAllById(contactIds).forEach(contact -> contacts.put(contact.getId(), contact));
+            
             List<Map<String, Object>> duplicateDetails = new ArrayList<>();
             
             for (DuplicateContact duplicate : pendingDuplicates) {
-                Optional<UserState> contact1 = contactRepository.findById(duplicate.getContact1Id());
-                Optional<UserState> contact2 = contactRepository.findById(duplicate.getContact2Id());
+                UserState contact1 = contacts.get(duplicate.getContact1Id());
+                UserState contact2 = contacts.get(duplicate.getContact2Id());
                 
-                if (contact1.isPresent() && contact2.isPresent()) {
+                if (contact1 != null && contact2 != null) {
                     Map<String, Object> duplicateInfo = new HashMap<>();
                     duplicateInfo.put("duplicateId", duplicate.getId());
                     duplicateInfo.put("similarityScore", Math.round(duplicate.getSimilarityScore() * 100));
@@ -95,11 +171,11 @@ public class DuplicateDetectionController {
                     duplicateInfo.put("createdAt", duplicate.getCreatedAt().toString());
                     
                     // Contact 1 details
-                    Map<String, String> contact1Details = CommonUtility.contactToMap(contact1.get());
+                    Map<String, String> contact1Details = CommonUtility.contactToMap(contact1);
                     duplicateInfo.put("contact1", contact1Details);
                     
                     // Contact 2 details
-                    Map<String, String> contact2Details = CommonUtility.contactToMap(contact2.get());
+                    Map<String, String> contact2Details = CommonUtility.contactToMap(contact2);
                     duplicateInfo.put("contact2", contact2Details);
                     
                     duplicateDetails.add(duplicateInfo);
@@ -109,9 +185,16 @@ public class DuplicateDetectionController {
             Map<String, Object> responseData = new HashMap<>();
             responseData.put("count", duplicateDetails.size());
             responseData.put("duplicates", duplicateDetails);
+            responseData.put("hasMore", hasMore);
+            if (hasMore) {
+                DuplicateContact last = pendingDuplicates.get(pendingDuplicates.size() - 1);
+                responseData.put("nextCursor", last.getSimilarityScore() + "_" + last.getId());
+            }
             
             return buildResponse(true, "Pending duplicates retrieved", responseData, HttpStatus.OK);
             
+        } catch (NumberFormatException e) {
+            return buildResponse(false, "Invalid cursor", null, HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             Map<String, Object> errorData = Map.of("error", e.getMessage());
             return buildResponse(false, "Error retrieving duplicates", errorData, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -130,22 +213,28 @@ public class DuplicateDetectionController {
                 return buildResponse(false, "Contact not found", null, HttpStatus.NOT_FOUND);
             }
             
-            List<DuplicateContact> duplicates = duplicateDetectionService.findDuplicatesForContact(contactId);
+            List<DuplicateContact> duplicates = duplicateDetectionService.findDuplicatesForContact(targetContact.get());
+            
+            // Load every other contact in one batched query
+            List<Long> otherContactIds = duplicates.stream()
+                .map(duplicate -> duplicate.getContact1Id().equals(contactId) ? 
+                    duplicate.getContact2Id() : duplicate.getContact1Id())
+                .collect(Collectors.toList());
+            Map<Long, UserState> otherContacts = new HashMap<>();
+            contactRepository.findAllById(otherContactIds).forEach(contact -> otherContacts.put(contact.getId(), contact));
             
             List<Map<String, Object>> duplicateDetails = new ArrayList<>();
             
-            for (DuplicateContact duplicate : duplicates) {
-                Long otherContactId = duplicate.getContact1Id().equals(contactId) ? 
-                    duplicate.getContact2Id() : duplicate.getContact1Id();
-                
-                Optional<UserState> otherContact = contactRepository.findById(otherContactId);
+            for (int i = 0; i < duplicates.size(); i++) {
+                DuplicateContact duplicate = duplicates.get(i);
+                UserState otherContact = otherContacts.get(otherContactIds.get(i));
                 
-                if (otherContact.isPresent()) {
+                if (otherContact != null) {
                     Map<String, Object> duplicateInfo = new HashMap<>();
                     duplicateInfo.put("duplicateId", duplicate.getId());
                     duplicateInfo.put("similarityScore", Math.round(duplicate.getSimilarityScore() * 100));
                     duplicateInfo.put("matchType", duplicate.getMatchType());
-                    duplicateInfo.put("otherContact", CommonUtility.contactToMap(otherContact.get()));
+                    duplicateInfo.put("otherContact", CommonUtility.contactToMap(otherContact));
                     
                     duplicateDetails.add(duplicateInfo);
                 }
@@ -198,10 +287,13 @@ public class DuplicateDetectionController {
             
             // Delete the unwanted contact
             contactRepository.deleteById(deleteContactId);
+            eventPublisher.publishEvent(ContactChangedEvent.deleted(deleteContactId));
             
             // Mark duplicate as merged
+            String previousStatus = duplicate.getStatus();
             duplicate.setStatus("MERGED");
             duplicateContactRepository.save(duplicate);
+            duplicateStatistics.recordStatusChange(duplicate, previousStatus);
             
             Map<String, String> responseData = Map.of(
                 "status", "merged",
@@ -230,8 +322,10 @@ public class DuplicateDetectionController {
             }
             
             DuplicateContact duplicate = duplicateOpt.get();
+            String previousStatus = duplicate.getStatus();
             duplicate.setStatus("IGNORED");
             duplicateContactRepository.save(duplicate);
+            duplicateStatistics.recordStatusChange(duplicate, previousStatus);
             
             Map<String, String> responseData = Map.of(
                 "status", "ignored",
@@ -247,29 +341,112 @@ public class DuplicateDetectionController {
     }
     
     /**
-     * Get duplicate statistics
+     * List clusters of contacts connected through pending duplicate pairs, by cluster id.
+     * Pages are keyset-based: pass the returned nextCursor as after to fetch the following page.
      */
-    @GetMapping("/stats")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getDuplicateStats() {
+    @GetMapping("/clusters")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getDuplicateClusters(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return buildResponse(false, "limit must be between 1 and " + MAX_PAGE_SIZE, null, HttpStatus.BAD_REQUEST);
+            }
+            
+            // One extra cluster tells whether another page follows
+            List<DuplicateCluster> page = duplicateClusterService.findClusters(after, limit + 1);
+            boolean hasMore = page.size() > limit;
+            if (hasMore) {
+                page = page.subList(0, limit);
+            }
+            
+            // Load the contacts of every listed cluster in one batched query
+            List<Long> contactIds = new ArrayList<>();
+            page.forEach(cluster -> contactIds.addAll(cluster.getContactIds()));
+            Map<Long, UserState> contacts = new HashMap<>();
+            contactRepository.findAllById(contactIds).forEach(contact -> contacts.put(contact.getId(), contact));
+            
+            List<Map<String, Object>> clusterDetails = new ArrayList<>();
+            for (DuplicateCluster cluster : page) {
+                List<Map<String, String>> members = new ArrayList<>();
+                for (Long contactId : cluster.getContactIds()) {
+                    UserState contact = contacts.get(contactId);
+                    if (contact != null) {
+                        members.add(CommonUtility.contactToMap(contact));
+                    }
+                }
+                
+                Map<String, Object> clusterInfo = new HashMap<>();
+                clusterInfo.put("clusterId", String.valueOf(cluster.getId()));
+                clusterInfo.put("size", cluster.size());
+                clusterInfo.put("pairCount", cluster.getPairs().size());
+                clusterInfo.put("maxSimilarityScore", Math.round(cluster.getMaxScore() * 100));
+                clusterInfo.put("contacts", members);
+                clusterDetails.add(clusterInfo);
+            }
+            
+            Map<String, Object> responseData = new HashMap<>();
+            responseData.put("count", clusterDetails.size());
+            responseData.put("clusters", clusterDetails);
+            responseData.put("hasMore", hasMore);
+            if (hasMore) {
+                responseData.put("nextCursor", String.valueOf(page.get(page.size() - 1).getId()));
+            }
+            
+            return buildResponse(true, "Duplicate clusters retrieved", responseData, HttpStatus.OK);
+            
+        } catch (Exception e) {
+            Map<String, Object> errorData = Map.of("error", e.getMessage());
+            return buildResponse(false, "Error retrieving duplicate clusters", errorData, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
+    /**
+     * Merge a whole cluster into one contact in a single transaction
+     */
+    @PostMapping("/clusters/{clusterId}/merge")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> mergeDuplicateCluster(
+            @PathVariable Long clusterId,
+            @RequestParam Long keepContactId) {
+        
         try {
-            List<DuplicateContact> allDuplicates = duplicateContactRepository.findAll();
+            Optional<DuplicateCluster> clusterOpt = duplicateClusterService.findCluster(clusterId);
+            if (clusterOpt.isEmpty()) {
+                return buildResponse(false, "Duplicate cluster not found", null, HttpStatus.NOT_FOUND);
+            }
             
-            Map<String, Long> statusCounts = allDuplicates.stream()
-                .collect(Collectors.groupingBy(DuplicateContact::getStatus, Collectors.counting()));
+            DuplicateCluster cluster = clusterOpt.get();
+            if (!cluster.getContactIds().contains(keepContactId)) {
+                return buildResponse(false, "Invalid contact ID for merge", null, HttpStatus.BAD_REQUEST);
+            }
+            if (!contactRepository.existsById(keepContactId)) {
+                return buildResponse(false, "Contact to keep not found", null, HttpStatus.NOT_FOUND);
+            }
             
-            Map<String, Long> matchTypeCounts = allDuplicates.stream()
-                .filter(d -> "PENDING".equals(d.getStatus()))
-                .collect(Collectors.groupingBy(DuplicateContact::getMatchType, Collectors.counting()));
+            List<Long> deletedContactIds = duplicateClusterService.mergeCluster(cluster, keepContactId);
+            
+            Map<String, Object> responseData = new HashMap<>();
+            responseData.put("status", "merged");
+            responseData.put("clusterId", clusterId);
+            responseData.put("keptContactId", keepContactId);
+            responseData.put("deletedContactIds", deletedContactIds);
+            responseData.put("mergedPairs", cluster.getPairs().size());
             
-            long highConfidenceCount = allDuplicates.stream()
-                .filter(d -> "PENDING".equals(d.getStatus()) && d.getSimilarityScore() >= 0.9)
-                .count();
+            return buildResponse(true, "Cluster merged successfully", responseData, HttpStatus.OK);
             
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalDuplicates", allDuplicates.size());
-            stats.put("statusBreakdown", statusCounts);
-            stats.put("matchTypeBreakdown", matchTypeCounts);
-            stats.put("highConfidenceDuplicates", highConfidenceCount);
+        } catch (Exception e) {
+            Map<String, Object> errorData = Map.of("error", e.getMessage());
+            return buildResponse(false, "Error merging cluster", errorData, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
+    /**
+     * Get duplicate statistics from the running counters
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getDuplicateStats() {
+        try {
+            Map<String, Object> stats = duplicateStatistics.snapshot();
             
             return buildResponse(true, "Duplicate statistics retrieved", stats, HttpStatus.OK);
             
@@ -1,20 +1,44 @@
 package org.common.repository;
 
 import org.common.service.UserState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface ContactRepository extends CrudRepository<UserState, Long> {
+public interface ContactRepository extends CrudRepository<UserState, Long>, ContactRepositoryCustom {
 
     Optional<UserState> findById(Long id);
 
     void deleteById(Long id);
 
+    /**
+     * Keyset page of contacts in id order, starting after the given id
+     */
+    @Query("SELECT c FROM UserState c WHERE c.id > :afterId ORDER BY c.id")
+    List<UserState> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page (by id) of the contacts modified in the (since, until] window
+     */
+    @Query("SELECT c FROM UserState c WHERE c.lastModified > :since AND c.lastModified <= :until AND c.id > :afterId ORDER BY c.id")
+    List<UserState> findModifiedBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until,
+                                        @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.id FROM UserState c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM UserState c WHERE c.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT c FROM UserState c WHERE " +
             "(:firstName IS NULL OR LOWER(c.firstName) LIKE LOWER(CONCAT('%', :firstName, '%'))) AND " +
             "(:lastName IS NULL OR LOWER(c.lastName) LIKE LOWER(CONCAT('%', :lastName, '%'))) AND " +
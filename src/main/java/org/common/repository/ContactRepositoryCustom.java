@@ -0,0 +1,32 @@
+package org.common.repository;
+
+import org.common.service.UserState;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface ContactRepositoryCustom {
+
+    /**
+     * Lazily stream every contact in id order.
+     * Rows are read in keyset-paged chunks and each chunk is detached once the stream moves past it,
+     * so the persistence context never holds more than one chunk. Does not need a transaction.
+     */
+    Stream<UserState> streamAll();
+
+    /**
+     * Like {@link #streamAll()}, restricted to contacts modified at or after modifiedSince (when not
+     * null) and, if favouritesOnly, to favourites
+     */
+    Stream<UserState> streamFiltered(LocalDateTime modifiedSince, boolean favouritesOnly);
+
+    /**
+     * Set the given attributes (entity attribute name to value) on every listed contact with one
+     * UPDATE statement, also stamping lastModified. Returns the number of rows updated.
+     * Must run inside a transaction.
+     */
+    int updateAll(Collection<Long> ids, Map<String, Object> changes);
+
+}
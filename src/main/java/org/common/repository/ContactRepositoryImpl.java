@@ -0,0 +1,110 @@
+package org.common.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.common.service.UserState;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class ContactRepositoryImpl implements ContactRepositoryCustom {
+
+    private static final String PAGE_QUERY = "SELECT c FROM UserState c WHERE c.id > :afterId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${contacts.stream.page-size:1000}")
+    private int pageSize;
+
+    @Override
+    public Stream<UserState> streamAll() {
+        return streamFiltered(null, false);
+    }
+
+    @Override
+    public Stream<UserState> streamFiltered(LocalDateTime modifiedSince, boolean favouritesOnly) {
+        return StreamSupport.stream(new KeysetSpliterator(modifiedSince, favouritesOnly), false);
+    }
+
+    @Override
+    public int updateAll(Collection<Long> ids, Map<String, Object> changes) {
+        // Attribute names come from ContactPatch, never from the request, so they are safe to inline
+        StringBuilder update = new StringBuilder("UPDATE UserState c SET c.lastModified = :lastModified");
+        for (String attribute : changes.keySet()) {
+            update.append(", c.").append(attribute).append(" = :").append(attribute);
+        }
+        update.append(" WHERE c.id IN :ids");
+
+        Query query = entityManager.createQuery(update.toString())
+                .setParameter("lastModified", LocalDateTime.now())
+                .setParameter("ids", ids);
+        changes.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    /**
+     * Walks the table one page at a time, detaching the previous page before loading the next
+     */
+    private class KeysetSpliterator extends Spliterators.AbstractSpliterator<UserState> {
+
+        private final LocalDateTime modifiedSince;
+        private final String query;
+        private List<UserState> page = Collections.emptyList();
+        private int position;
+        private long lastId = Long.MIN_VALUE;
+        private boolean exhausted;
+
+        KeysetSpliterator(LocalDateTime modifiedSince, boolean favouritesOnly) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+            this.modifiedSince = modifiedSince;
+            this.query = PAGE_QUERY
+                    + (modifiedSince != null ? " AND c.lastModified >= :modifiedSince" : "")
+                    + (favouritesOnly ? " AND c.favorites = true" : "")
+                    + " ORDER BY c.id";
+        }
+
+        private List<UserState> fetchPage(long afterId) {
+            TypedQuery<UserState> pageQuery = entityManager.createQuery(query, UserState.class)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(pageSize)
+                    .setHint("org.hibernate.fetchSize", pageSize)
+                    .setHint("org.hibernate.readOnly", true);
+            if (modifiedSince != null) {
+                pageQuery.setParameter("modifiedSince", modifiedSince);
+            }
+            return pageQuery.getResultList();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super UserState> action) {
+            if (position == page.size()) {
+                page.forEach(entityManager::detach);
+                if (exhausted) {
+                    page = Collections.emptyList();
+                    return false;
+                }
+                page = fetchPage(lastId);
+                position = 0;
+                exhausted = page.size() < pageSize;
+                if (page.isEmpty()) {
+                    return false;
+                }
+                lastId = page.get(page.size() - 1).getId();
+            }
+            action.accept(page.get(position++));
+            return true;
+        }
+    }
+}
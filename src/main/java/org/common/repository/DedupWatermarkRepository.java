@@ -0,0 +1,10 @@
+package org.common.repository;
+
+import org.common.service.DedupWatermark;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DedupWatermarkRepository extends CrudRepository<DedupWatermark, String> {
+
+}
@@ -1,28 +1,102 @@
 package org.common.repository;
 
+import jakarta.persistence.LockModeType;
 import org.common.service.DuplicateContact;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DuplicateContactRepository extends JpaRepository<DuplicateContact, Long> {
+public interface DuplicateContactRepository extends JpaRepository<DuplicateContact, Long>, DuplicateContactRepositoryCustom {
     
     @Query("SELECT d FROM DuplicateContact d WHERE d.status = 'PENDING' ORDER BY d.similarityScore DESC")
     List<DuplicateContact> findPendingDuplicates();
     
+    /**
+     * First page of pending duplicates, ordered by score (highest first) then id
+     */
+    @Query("SELECT d FROM DuplicateContact d WHERE d.status = 'PENDING' ORDER BY d.similarityScore DESC, d.id ASC")
+    List<DuplicateContact> findPendingDuplicates(Pageable pageable);
+    
+    /**
+     * Keyset page of pending duplicates following the (score, id) cursor of the previous page
+     */
+    @Query("SELECT d FROM DuplicateContact d WHERE d.status = 'PENDING' AND " +
+           "(d.similarityScore < :score OR (d.similarityScore = :score AND d.id > :id)) " +
+           "ORDER BY d.similarityScore DESC, d.id ASC")
+    List<DuplicateContact> findPendingDuplicatesAfter(@Param("score") Double score, @Param("id") Long id, Pageable pageable);
+    
     @Query("SELECT d FROM DuplicateContact d WHERE (d.contact1Id = :contactId OR d.contact2Id = :contactId) AND d.status = 'PENDING'")
     List<DuplicateContact> findPendingDuplicatesForContact(@Param("contactId") Long contactId);
     
+    /**
+     * Pending pairs touching any of the given contacts
+     */
+    @Query("SELECT d FROM DuplicateContact d WHERE d.status = 'PENDING' AND " +
+           "(d.contact1Id IN :contactIds OR d.contact2Id IN :contactIds)")
+    List<DuplicateContact> findPendingDuplicatesForContacts(@Param("contactIds") Collection<Long> contactIds);
+    
+    /**
+     * Ascending first-side contact ids of pending pairs after a cursor
+     */
+    @Query("SELECT DISTINCT d.contact1Id FROM DuplicateContact d WHERE d.status = 'PENDING' AND d.contact1Id > :afterId " +
+           "ORDER BY d.contact1Id")
+    List<Long> findPendingContact1IdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Ascending second-side contact ids of pending pairs after a cursor
+     */
+    @Query("SELECT DISTINCT d.contact2Id FROM DuplicateContact d WHERE d.status = 'PENDING' AND d.contact2Id > :afterId " +
+           "ORDER BY d.contact2Id")
+    List<Long> findPendingContact2IdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * The given pairs that are still pending, locked until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM DuplicateContact d WHERE d.id IN :ids AND d.status = 'PENDING'")
+    List<DuplicateContact> lockPendingByIds(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT d FROM DuplicateContact d WHERE " +
            "((d.contact1Id = :contact1Id AND d.contact2Id = :contact2Id) OR " +
            "(d.contact1Id = :contact2Id AND d.contact2Id = :contact1Id))")
     Optional<DuplicateContact> findExistingDuplicate(@Param("contact1Id") Long contact1Id, @Param("contact2Id") Long contact2Id);
     
+    @Query("SELECT d.contact1Id, d.contact2Id FROM DuplicateContact d")
+    List<Object[]> findAllPairs();
+    
+    @Query("SELECT d.contact1Id, d.contact2Id FROM DuplicateContact d WHERE d.contact1Id = :contactId OR d.contact2Id = :contactId")
+    List<Object[]> findPairsForContact(@Param("contactId") Long contactId);
+    
+    /**
+     * Stored pairs of a contact with any of the given other contacts
+     */
+    @Query("SELECT d FROM DuplicateContact d WHERE " +
+           "(d.contact1Id = :contactId AND d.contact2Id IN :otherIds) OR " +
+           "(d.contact2Id = :contactId AND d.contact1Id IN :otherIds)")
+    List<DuplicateContact> findPairsForContactWith(@Param("contactId") Long contactId, @Param("otherIds") Collection<Long> otherIds);
+    
     @Query("SELECT d FROM DuplicateContact d WHERE d.similarityScore >= :threshold AND d.status = 'PENDING'")
     List<DuplicateContact> findHighConfidenceDuplicates(@Param("threshold") Double threshold);
+    
+    @Modifying
+    @Query("UPDATE DuplicateContact d SET d.status = :status WHERE d.id IN :ids AND d.status = 'PENDING'")
+    int updatePendingStatus(@Param("ids") Collection<Long> ids, @Param("status") String status);
+    
+    @Query("SELECT d.status, COUNT(d) FROM DuplicateContact d GROUP BY d.status")
+    List<Object[]> countByStatus();
+    
+    @Query("SELECT d.matchType, COUNT(d) FROM DuplicateContact d WHERE d.status = 'PENDING' GROUP BY d.matchType")
+    List<Object[]> countPendingByMatchType();
+    
+    @Query("SELECT COUNT(d) FROM DuplicateContact d WHERE d.similarityScore >= :threshold AND d.status = 'PENDING'")
+    long countHighConfidenceDuplicates(@Param("threshold") Double threshold);
 }
\ No newline at end of file
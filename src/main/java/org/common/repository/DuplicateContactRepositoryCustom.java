@@ -0,0 +1,16 @@
+package org.common.repository;
+
+import org.common.service.DuplicateContact;
+
+import java.util.List;
+
+public interface DuplicateContactRepositoryCustom {
+
+    /**
+     * Insert duplicate pairs with batched JDBC statements.
+     * Pairs that already exist (unique contact1_id / contact2_id) are skipped.
+     * Returns the pairs that were actually inserted.
+     */
+    List<DuplicateContact> insertIgnoringExisting(List<DuplicateContact> duplicates);
+
+}
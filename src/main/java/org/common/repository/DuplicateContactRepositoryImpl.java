@@ -0,0 +1,57 @@
+package org.common.repository;
+
+import org.common.service.DuplicateContact;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DuplicateContactRepositoryImpl implements DuplicateContactRepositoryCustom {
+
+    // INSERT ... SELECT rather than INSERT ... VALUES: with rewriteBatchedStatements the MySQL driver
+    // folds a VALUES batch into one multi-row INSERT and reports SUCCESS_NO_INFO for every row, but
+    // sends this form as separate statements in one round trip, each with its own row count
+    private static final String INSERT_IGNORE_SQL =
+            "INSERT IGNORE INTO duplicate_contacts " +
+            "(contact1_id, contact2_id, similarity_score, match_type, status, created_at) " +
+            "SELECT ?, ?, ?, ?, ?, ? FROM DUAL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${duplicate.insert.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public List<DuplicateContact> insertIgnoringExisting(List<DuplicateContact> duplicates) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IGNORE_SQL, duplicates, batchSize, (ps, duplicate) -> {
+            ps.setLong(1, duplicate.getContact1Id());
+            ps.setLong(2, duplicate.getContact2Id());
+            ps.setDouble(3, duplicate.getSimilarityScore());
+            ps.setString(4, duplicate.getMatchType());
+            ps.setString(5, duplicate.getStatus());
+            ps.setTimestamp(6, Timestamp.valueOf(duplicate.getCreatedAt()));
+        });
+
+        // Update counts follow the input order; a skipped duplicate reports 0 rows. Each count comes
+        // from the statement that inserted or skipped the row, so concurrent writers never both count it.
+        List<DuplicateContact> inserted = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    throw new IllegalStateException("The JDBC driver did not report which duplicate pairs were inserted");
+                }
+                if (count != 0) {
+                    inserted.add(duplicates.get(index));
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+}
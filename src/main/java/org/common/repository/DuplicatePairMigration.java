@@ -0,0 +1,89 @@
+package org.common.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One-time clean-up of duplicate_contacts rows written before pairs were stored normalized.
+ *
+ * Older rows may hold a pair with the larger id first, or the same pair twice. INSERT IGNORE only
+ * skips a pair stored in the same order, and the uk_duplicate_pair constraint cannot be added while
+ * duplicates exist. Before the schema update runs, every pair is reduced to one row and that row is
+ * stored smaller id first. The row kept is a MERGED or IGNORED one over a PENDING one, so review
+ * decisions survive, then the oldest. Nothing is done once the constraint exists and no reversed
+ * rows remain.
+ */
+@Component
+public class DuplicatePairMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicatePairMigration.class);
+
+    private static final String TABLE_EXISTS_SQL =
+            "SELECT COUNT(*) FROM information_schema.tables " +
+            "WHERE table_schema = DATABASE() AND table_name = 'duplicate_contacts'";
+
+    private static final String CONSTRAINT_EXISTS_SQL =
+            "SELECT COUNT(*) FROM information_schema.statistics " +
+            "WHERE table_schema = DATABASE() AND table_name = 'duplicate_contacts' AND index_name = 'uk_duplicate_pair'";
+
+    private static final String REVERSED_EXISTS_SQL =
+            "SELECT EXISTS (SELECT 1 FROM duplicate_contacts WHERE contact1_id > contact2_id)";
+
+    private static final String DELETE_EXTRA_ROWS_SQL =
+            "DELETE d FROM duplicate_contacts d JOIN (" +
+            "  SELECT id FROM (" +
+            "    SELECT id, ROW_NUMBER() OVER (" +
+            "      PARTITION BY LEAST(contact1_id, contact2_id), GREATEST(contact1_id, contact2_id)" +
+            "      ORDER BY CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END, id) AS row_rank" +
+            "    FROM duplicate_contacts) ranked" +
+            "  WHERE row_rank > 1) extra ON extra.id = d.id";
+
+    // MySQL applies single-table SET clauses left to right, so the ids are swapped with XOR
+    private static final String NORMALIZE_ORDER_SQL =
+            "UPDATE duplicate_contacts SET " +
+            "contact1_id = contact1_id ^ contact2_id, " +
+            "contact2_id = contact1_id ^ contact2_id, " +
+            "contact1_id = contact1_id ^ contact2_id " +
+            "WHERE contact1_id > contact2_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void normalizeStoredPairs() {
+        if (count(TABLE_EXISTS_SQL) == 0
+                || (count(CONSTRAINT_EXISTS_SQL) > 0 && count(REVERSED_EXISTS_SQL) == 0)) {
+            return;
+        }
+        // JPA is not up yet, so the clean-up runs in a plain JDBC transaction
+        TransactionTemplate transaction =
+                new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        transaction.executeWithoutResult(status -> {
+            int removed = jdbcTemplate.update(DELETE_EXTRA_ROWS_SQL);
+            int reordered = jdbcTemplate.update(NORMALIZE_ORDER_SQL);
+            log.info("Normalized stored duplicate pairs: removed {} repeated rows, reordered {}", removed, reordered);
+        });
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Makes the JPA EntityManagerFactory, and with it Hibernate's schema update, wait for the clean-up
+     */
+    @Component
+    static class RunBeforeJpa extends EntityManagerFactoryDependsOnPostProcessor {
+        RunBeforeJpa() {
+            super(DuplicatePairMigration.class);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.common.service;
+
+/**
+ * The match rules shipped with the application. Scores are configured through {@link MatchRulePipeline}.
+ */
+final class BuiltInMatchRules {
+
+    static final String EMAIL_EXACT = "EMAIL_EXACT";
+    static final String PHONE_EXACT = "PHONE_EXACT";
+    static final String NAME_FUZZY = "NAME_FUZZY";
+    static final String EMAIL_DOMAIN_NAME = "EMAIL_DOMAIN_NAME";
+    static final String PHONE_FUZZY = "PHONE_FUZZY";
+
+    private BuiltInMatchRules() {
+    }
+
+    /**
+     * Same normalized email address
+     */
+    static MatchRule emailExact(double score) {
+        return new MatchRule() {
+            @Override
+            public String getMatchType() { return EMAIL_EXACT; }
+
+            @Override
+            public int getCost() { return 1; }
+
+            @Override
+            public boolean isExact() { return true; }
+
+            @Override
+            public double upperBound(MatchCandidate candidate) {
+                return candidate.getFirst().hasEmail() && candidate.getSecond().hasEmail() ? score : 0.0;
+            }
+
+            @Override
+            public double score(MatchCandidate candidate) {
+                return upperBound(candidate) > 0
+                    && candidate.getFirst().getEmail().equals(candidate.getSecond().getEmail()) ? score : 0.0;
+            }
+        };
+    }
+
+    /**
+     * Same phone digits
+     */
+    static MatchRule phoneExact(double score) {
+        return new MatchRule() {
+            @Override
+            public String getMatchType() { return PHONE_EXACT; }
+
+            @Override
+            public int getCost() { return 1; }
+
+            @Override
+            public boolean isExact() { return true; }
+
+            @Override
+            public double upperBound(MatchCandidate candidate) {
+                return candidate.getFirst().hasPhone() && candidate.getSecond().hasPhone() ? score : 0.0;
+            }
+
+            @Override
+            public double score(MatchCandidate candidate) {
+                return upperBound(candidate) > 0
+                    && candidate.getFirst().getPhone().equals(candidate.getSecond().getPhone()) ? score : 0.0;
+            }
+        };
+    }
+
+    /**
+     * Best of full-name edit distance, word overlap and first / last name comparison, scaled by weight
+     */
+    static MatchRule nameFuzzy(double weight) {
+        return new MatchRule() {
+            @Override
+            public String getMatchType() { return NAME_FUZZY; }
+
+            @Override
+            public int getCost() { return 10; }
+
+            @Override
+            public double upperBound(MatchCandidate candidate) {
+                return candidate.nameScoreBound() * weight;
+            }
+
+            @Override
+            public double score(MatchCandidate candidate) {
+                return candidate.nameScore() * weight;
+            }
+        };
+    }
+
+    /**
+     * Name similarity scaled by weight, for contacts whose email addresses share a domain
+     */
+    static MatchRule emailDomainName(double weight) {
+        return new MatchRule() {
+            @Override
+            public String getMatchType() { return EMAIL_DOMAIN_NAME; }
+
+            @Override
+            public int getCost() { return 10; }
+
+            @Override
+            public double upperBound(MatchCandidate candidate) {
+                ContactFingerprint first = candidate.getFirst();
+                ContactFingerprint second = candidate.getSecond();
+                if (!first.hasEmail() || !second.hasEmail() || !first.getEmailDomain().equals(second.getEmailDomain())) {
+                    return 0.0;
+                }
+                return candidate.nameScoreBound() * weight;
+            }
+
+            @Override
+            public double score(MatchCandidate candidate) {
+                return upperBound(candidate) > 0 ? candidate.nameScore() * weight : 0.0;
+            }
+        };
+    }
+
+    /**
+     * One phone number contains the other, or both share the last seven digits
+     */
+    static MatchRule phoneFuzzy(double containmentScore, double localNumberScore) {
+        return new MatchRule() {
+            @Override
+            public String getMatchType() { return PHONE_FUZZY; }
+
+            @Override
+            public int getCost() { return 2; }
+
+            @Override
+            public double upperBound(MatchCandidate candidate) {
+                if (!candidate.getFirst().hasPhone() || !candidate.getSecond().hasPhone()) {
+                    return 0.0;
+                }
+                return candidate.getFirst().getPhone().equals(candidate.getSecond().getPhone())
+                    ? 1.0 : Math.max(containmentScore, localNumberScore);
+            }
+
+            @Override
+            public double score(MatchCandidate candidate) {
+                if (!candidate.getFirst().hasPhone() || !candidate.getSecond().hasPhone()) {
+                    return 0.0;
+                }
+                return ContactSimilarity.phoneSimilarity(candidate.getFirst().getPhone(), candidate.getSecond().getPhone(),
+                    containmentScore, localNumberScore);
+            }
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package org.common.service;
+
+import org.common.repository.ContactRepository;
+import org.common.util.AfterCommit;
+import org.common.util.CommonUtility;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Updates and deletes of many contacts in one transaction.
+ *
+ * Existence checks, loads and writes are issued as IN statements over batches of ids instead of
+ * one query per contact. Patches that set the same values share one {@code UPDATE ... WHERE id IN}
+ * statement per batch, so bulk changes such as flagging favourites cost a few statements. Every
+ * requested id gets an outcome: updated / deleted, not_found, or invalid with the validation error.
+ * Change events are published once the transaction has committed.
+ */
+@Service
+public class ContactBatchService {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${contacts.batch.max-size:100000}")
+    private int maxSize;
+
+    /**
+     * Outcome per distinct id, in request order
+     *
+     * @throws IllegalArgumentException if more than contacts.batch.max-size ids are given
+     */
+    @Transactional
+    public List<Map<String, String>> deleteContacts(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        checkSize(distinctIds.size());
+
+        Set<Long> existing = new HashSet<>();
+        for (List<Long> batch : batches(distinctIds)) {
+            existing.addAll(contactRepository.findExistingIds(batch));
+        }
+        List<Long> deleteIds = distinctIds.stream().filter(existing::contains).toList();
+        for (List<Long> batch : batches(deleteIds)) {
+            contactRepository.deleteAllByIdIn(batch);
+        }
+
+        AfterCommit.run(() -> {
+            for (Long contactId : deleteIds) {
+                eventPublisher.publishEvent(ContactChangedEvent.deleted(contactId));
+            }
+        });
+
+        List<Map<String, String>> outcomes = new ArrayList<>(distinctIds.size());
+        for (Long contactId : distinctIds) {
+            outcomes.add(outcome(contactId, existing.contains(contactId) ? "deleted" : "not_found", null));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Outcome per patch, in request order. A patched contact must still pass
+     * {@link CommonUtility#validateContactInfo}; a later patch for an id already patched is rejected.
+     *
+     * @throws IllegalArgumentException if a patch has no id or more than contacts.batch.max-size are given
+     */
+    @Transactional
+    public List<Map<String, String>> updateContacts(List<ContactPatch> patches) {
+        checkSize(patches.size());
+        Set<Long> distinctIds = new LinkedHashSet<>();
+        for (ContactPatch patch : patches) {
+            if (patch.getId() == null) {
+                throw new IllegalArgumentException("Every patch needs an id");
+            }
+            distinctIds.add(patch.getId());
+        }
+
+        Map<Long, UserState> current = new HashMap<>();
+        for (List<Long> batch : batches(new ArrayList<>(distinctIds))) {
+            contactRepository.findAllById(batch).forEach(contact -> current.put(contact.getId(), contact));
+        }
+
+        // Valid patches grouped by the values they set; each group becomes one statement per batch
+        Map<Map<String, Object>, List<Long>> updates = new LinkedHashMap<>();
+        List<UserState> updated = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        List<Map<String, String>> outcomes = new ArrayList<>(patches.size());
+        for (ContactPatch patch : patches) {
+            Long contactId = patch.getId();
+            UserState contact = current.get(contactId);
+            if (contact == null) {
+                outcomes.add(outcome(contactId, "not_found", null));
+                continue;
+            }
+            if (!seen.add(contactId)) {
+                outcomes.add(outcome(contactId, "invalid", "Contact is patched more than once"));
+                continue;
+            }
+            UserState patched = patch.applyTo(contact);
+            String validationError = CommonUtility.validateContactInfo(
+                    patched.getFirstName(), patched.getEmailAddress(), patched.getMobileNumber());
+            if (validationError != null) {
+                outcomes.add(outcome(contactId, "invalid", validationError));
+                continue;
+            }
+            Map<String, Object> changes = patch.changes();
+            if (!changes.isEmpty()) {
+                updates.computeIfAbsent(changes, k -> new ArrayList<>()).add(contactId);
+                updated.add(patched);
+            }
+            outcomes.add(outcome(contactId, "updated", null));
+        }
+
+        for (Map.Entry<Map<String, Object>, List<Long>> update : updates.entrySet()) {
+            for (List<Long> batch : batches(update.getValue())) {
+                contactRepository.updateAll(batch, update.getKey());
+            }
+        }
+
+        AfterCommit.run(() -> {
+            for (UserState contact : updated) {
+                eventPublisher.publishEvent(ContactChangedEvent.updated(contact));
+            }
+        });
+        return outcomes;
+    }
+
+    private void checkSize(int size) {
+        if (size > maxSize) {
+            throw new IllegalArgumentException("At most " + maxSize + " contacts can be changed per request");
+        }
+    }
+
+    private static Map<String, String> outcome(Long contactId, String status, String error) {
+        Map<String, String> outcome = new HashMap<>();
+        outcome.put("contactId", String.valueOf(contactId));
+        outcome.put("status", status);
+        if (error != null) {
+            outcome.put("error", error);
+        }
+        return outcome;
+    }
+
+    private static List<List<Long>> batches(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE)));
+        }
+        return batches;
+    }
+}
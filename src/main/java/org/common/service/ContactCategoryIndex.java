@@ -0,0 +1,329 @@
+package org.common.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Category membership index: one bitmap per category over dense contact ordinals.
+ *
+ * Ordinals are handed out in id order, so each category is a compact {@link BitSet} whose bit
+ * order is id order: a page is read by seeking to the first ordinal after the cursor and walking
+ * the bitmaps forward until the page is full, at a cost proportional to the page rather than to
+ * the whole result. New ids normally arrive in increasing order and are appended; the few that do
+ * not are kept in a small sorted side map and merged into each page. Ordinals of deleted contacts
+ * are not reused. The index is compacted, renumbering every contact in id order, after a rebuild
+ * and whenever the side map or the unused ordinals grow too large.
+ */
+@Component
+public class ContactCategoryIndex implements ContactIndex {
+
+    // Compact when more than this many ids are out of order or unused, and they are a large share
+    private static final int COMPACT_MIN = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<String, BitSet> members = new HashMap<>();
+    private final Map<Long, Set<String>> categoriesById = new HashMap<>();
+    // Contacts whose id was below the last assigned ordinal's id when they were indexed
+    private final TreeMap<Long, Set<String>> unordered = new TreeMap<>();
+    // Id of each ordinal, ascending; the ids of deleted contacts stay so the array can be searched
+    private long[] ids = new long[1024];
+    private int nextOrdinal;
+    private boolean rebuilding;
+
+    @Override
+    public void index(UserState contact) {
+        Set<String> categories = normalize(contact.getCategories());
+        lock.writeLock().lock();
+        try {
+            // A contact keeps its ordinal across updates
+            Integer ordinal = ordinals.get(contact.getId());
+            removeMemberships(contact.getId());
+            if (!categories.isEmpty()) {
+                categoriesById.put(contact.getId(), categories);
+                if (ordinal != null) {
+                    ordinals.put(contact.getId(), ordinal);
+                } else {
+                    ordinal = ordinalFor(contact.getId());
+                }
+                if (ordinal == null) {
+                    unordered.put(contact.getId(), categories);
+                } else {
+                    setMemberships(ordinal, categories);
+                }
+            }
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long contactId) {
+        lock.writeLock().lock();
+        try {
+            removeMemberships(contactId);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            members.clear();
+            categoriesById.clear();
+            unordered.clear();
+            nextOrdinal = 0;
+            // Rows stream in id order; events during the rebuild may not, so compact once at the end
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuilt() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = false;
+            if (!unordered.isEmpty() || ordinals.size() < nextOrdinal) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit ids greater than afterId, in ascending order, of the contacts in every category of
+     * {@code all} and in at least one category of {@code any} that also pass {@code filter}; an
+     * empty set places no constraint, but at least one must be given
+     */
+    public List<Long> page(Collection<String> all, Collection<String> any, long afterId, int limit, LongPredicate filter) {
+        Set<String> required = normalize(all);
+        Set<String> optional = normalize(any);
+        if (required.isEmpty() && optional.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Lead with the smallest required bitmap; a missing one leaves only the side map to match
+            List<BitSet> requiredSets = new ArrayList<>();
+            for (String category : required) {
+                BitSet set = members.get(category);
+                if (set == null) {
+                    requiredSets = null;
+                    break;
+                }
+                requiredSets.add(set);
+            }
+            List<BitSet> optionalSets = new ArrayList<>();
+            for (String category : optional) {
+                BitSet set = members.get(category);
+                if (set != null) {
+                    optionalSets.add(set);
+                }
+            }
+            boolean bitmapsMatch = requiredSets != null && (optional.isEmpty() || !optionalSets.isEmpty());
+            if (bitmapsMatch) {
+                requiredSets.sort(Comparator.comparingInt(BitSet::cardinality));
+            }
+
+            int from = Arrays.binarySearch(ids, 0, nextOrdinal, afterId);
+            int ordinal = bitmapsMatch ? nextMatch(from >= 0 ? from + 1 : -from - 1, requiredSets, optionalSets) : -1;
+            Iterator<Map.Entry<Long, Set<String>>> sideEntries = unordered.tailMap(afterId, false).entrySet().iterator();
+            Long sideId = nextSideMatch(sideEntries, required, optional);
+
+            List<Long> page = new ArrayList<>(Math.min(limit, 1024));
+            while (page.size() < limit && (ordinal >= 0 || sideId != null)) {
+                long id;
+                if (sideId == null || (ordinal >= 0 && ids[ordinal] < sideId)) {
+                    id = ids[ordinal];
+                    ordinal = nextMatch(ordinal + 1, requiredSets, optionalSets);
+                } else {
+                    id = sideId;
+                    sideId = nextSideMatch(sideEntries, required, optional);
+                }
+                if (filter.test(id)) {
+                    page.add(id);
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether a contact satisfies a {@link #page} filter, for callers reading contacts directly
+     */
+    public static boolean matches(UserState contact, Collection<String> all, Collection<String> any) {
+        return matches(normalize(contact.getCategories()), normalize(all), normalize(any));
+    }
+
+    private static boolean matches(Set<String> categories, Set<String> required, Set<String> optional) {
+        return categories.containsAll(required)
+            && (optional.isEmpty() || optional.stream().anyMatch(categories::contains));
+    }
+
+    /**
+     * First ordinal at or after from that is in every required bitmap and, when any are given, in
+     * one of the optional bitmaps; -1 if there is none
+     */
+    private static int nextMatch(int from, List<BitSet> required, List<BitSet> optional) {
+        int ordinal = from;
+        while (true) {
+            if (required.isEmpty()) {
+                ordinal = nextInAny(optional, ordinal);
+                return ordinal;
+            }
+            // Leapfrog: move to the next ordinal every required bitmap contains
+            ordinal = required.get(0).nextSetBit(ordinal);
+            boolean inAll = true;
+            for (int i = 1; i < required.size() && ordinal >= 0; i++) {
+                int next = required.get(i).nextSetBit(ordinal);
+                if (next != ordinal) {
+                    ordinal = next;
+                    inAll = false;
+                    break;
+                }
+            }
+            if (ordinal < 0) {
+                return -1;
+            }
+            if (inAll) {
+                if (optional.isEmpty() || nextInAny(optional, ordinal) == ordinal) {
+                    return ordinal;
+                }
+                ordinal++;
+            }
+        }
+    }
+
+    private static int nextInAny(List<BitSet> sets, int from) {
+        int next = -1;
+        for (BitSet set : sets) {
+            int candidate = set.nextSetBit(from);
+            if (candidate >= 0 && (next < 0 || candidate < next)) {
+                next = candidate;
+            }
+        }
+        return next;
+    }
+
+    private static Long nextSideMatch(Iterator<Map.Entry<Long, Set<String>>> entries, Set<String> required,
+                                      Set<String> optional) {
+        while (entries.hasNext()) {
+            Map.Entry<Long, Set<String>> entry = entries.next();
+            if (matches(entry.getValue(), required, optional)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The contact's ordinal, appending one if its id sorts after every assigned ordinal;
+     * null if it must go to the side map instead
+     */
+    private Integer ordinalFor(Long contactId) {
+        Integer ordinal = ordinals.get(contactId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        if (nextOrdinal > 0 && contactId <= ids[nextOrdinal - 1]) {
+            return null;
+        }
+        int assigned = nextOrdinal++;
+        if (assigned == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[assigned] = contactId;
+        ordinals.put(contactId, assigned);
+        return assigned;
+    }
+
+    private void setMemberships(int ordinal, Set<String> categories) {
+        for (String category : categories) {
+            members.computeIfAbsent(category, k -> new BitSet()).set(ordinal);
+        }
+    }
+
+    /**
+     * Drop the contact's category memberships; an ordinal it holds stays assigned to its id
+     */
+    private void removeMemberships(Long contactId) {
+        Set<String> previous = categoriesById.remove(contactId);
+        if (previous == null) {
+            return;
+        }
+        if (unordered.remove(contactId) != null) {
+            return;
+        }
+        Integer ordinal = ordinals.remove(contactId);
+        for (String category : previous) {
+            BitSet set = members.get(category);
+            if (set != null) {
+                set.clear(ordinal);
+                if (set.isEmpty()) {
+                    members.remove(category);
+                }
+            }
+        }
+    }
+
+    private void compactIfSparse() {
+        if (rebuilding) {
+            return;
+        }
+        int unused = nextOrdinal - ordinals.size();
+        if ((unordered.size() > COMPACT_MIN && unordered.size() * 16L > categoriesById.size())
+                || (unused > COMPACT_MIN && unused * 2L > nextOrdinal)) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumber every indexed contact in id order and rebuild the bitmaps, emptying the side map
+     */
+    private void compact() {
+        long[] sorted = new long[categoriesById.size()];
+        int count = 0;
+        for (Long contactId : categoriesById.keySet()) {
+            sorted[count++] = contactId;
+        }
+        Arrays.sort(sorted);
+
+        ordinals.clear();
+        members.clear();
+        unordered.clear();
+        ids = new long[Math.max(1024, sorted.length + sorted.length / 4)];
+        nextOrdinal = 0;
+        for (long contactId : sorted) {
+            int ordinal = ordinalFor(contactId);
+            setMemberships(ordinal, categoriesById.get(contactId));
+        }
+    }
+
+    private static Set<String> normalize(Collection<String> categories) {
+        if (categories == null) {
+            return Collections.emptySet();
+        }
+        Set<String> normalized = new HashSet<>();
+        for (String category : categories) {
+            if (category != null && !category.isBlank()) {
+                normalized.add(category.trim());
+            }
+        }
+        return normalized;
+    }
+}
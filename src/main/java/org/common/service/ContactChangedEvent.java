@@ -0,0 +1,51 @@
+package org.common.service;
+
+/**
+ * Published after a contact has been written or deleted.
+ * In-memory indexes update themselves from it and duplicate detection reacts to it.
+ */
+public class ContactChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long contactId;
+    private final UserState contact;
+
+    private ContactChangedEvent(Type type, Long contactId, UserState contact) {
+        this.type = type;
+        this.contactId = contactId;
+        this.contact = contact;
+    }
+
+    public static ContactChangedEvent created(UserState contact) {
+        return new ContactChangedEvent(Type.CREATED, contact.getId(), contact);
+    }
+
+    public static ContactChangedEvent updated(UserState contact) {
+        return new ContactChangedEvent(Type.UPDATED, contact.getId(), contact);
+    }
+
+    public static ContactChangedEvent deleted(Long contactId) {
+        return new ContactChangedEvent(Type.DELETED, contactId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getContactId() {
+        return contactId;
+    }
+
+    /**
+     * The saved contact, null for deletions
+     */
+    public UserState getContact() {
+        return contact;
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+}
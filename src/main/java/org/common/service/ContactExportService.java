@@ -0,0 +1,142 @@
+package org.common.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.common.repository.ContactRepository;
+import org.common.util.CommonUtility;
+import org.common.util.CsvWriter;
+import org.common.util.VCardWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Bulk export of contacts as CSV, vCard or NDJSON.
+ *
+ * Contacts are read through the keyset-paged contact stream, which detaches each page once it
+ * has been written, and go straight to a buffered writer over the response, so memory use stays
+ * constant however many contacts are exported. The modified-since and favourites filters are
+ * applied in the query; categories are filtered as the rows stream past.
+ */
+@Service
+public class ContactExportService {
+
+    // Same columns and names as accepted by ContactImportService.importCsv, plus the id
+    private static final List<String> CSV_HEADER = List.of(
+        "id", "firstName", "middleName", "lastName", "emailAddress", "mobileNumber", "favorites", "categories");
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        VCARD("text/vcard", "vcf"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Write every contact matching the filters to output, in id order. Category filters follow
+     * {@link ContactCategoryIndex#page}: empty all and any lists place no constraint.
+     * The output is flushed but not closed.
+     */
+    public void export(Format format, Collection<String> all, Collection<String> any, boolean favouritesOnly,
+                       LocalDateTime modifiedSince, OutputStream output) throws IOException {
+        boolean byCategory = all.stream().anyMatch(category -> !category.isBlank())
+                || any.stream().anyMatch(category -> !category.isBlank());
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try (Stream<UserState> stream = contactRepository.streamFiltered(modifiedSince, favouritesOnly)) {
+            Iterator<UserState> contacts = stream
+                    .filter(contact -> !byCategory || ContactCategoryIndex.matches(contact, all, any))
+                    .iterator();
+            switch (format) {
+                case CSV -> writeCsv(contacts, writer);
+                case VCARD -> writeVCards(contacts, writer);
+                case NDJSON -> writeNdjson(contacts, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(Iterator<UserState> contacts, Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord(CSV_HEADER);
+        while (contacts.hasNext()) {
+            UserState contact = contacts.next();
+            csv.writeRecord(Arrays.asList(
+                String.valueOf(contact.getId()),
+                contact.getFirstName(),
+                contact.getMiddleName(),
+                contact.getLastName(),
+                contact.getEmailAddress(),
+                contact.getMobileNumber(),
+                String.valueOf(contact.isFavorites()),
+                contact.getCategories() != null ? String.join(";", contact.getCategories()) : null));
+        }
+    }
+
+    private static void writeVCards(Iterator<UserState> contacts, Writer writer) throws IOException {
+        VCardWriter vCard = new VCardWriter(writer);
+        while (contacts.hasNext()) {
+            UserState contact = contacts.next();
+            vCard.beginCard();
+            vCard.writeProperty("UID", String.valueOf(contact.getId()));
+            vCard.writeProperty("FN", fullName(contact));
+            vCard.writeProperty("N", Arrays.asList(
+                contact.getLastName(), contact.getFirstName(), contact.getMiddleName(), null, null), ';');
+            vCard.writeProperty("EMAIL", contact.getEmailAddress());
+            vCard.writeProperty("TEL", contact.getMobileNumber());
+            if (contact.getCategories() != null && !contact.getCategories().isEmpty()) {
+                vCard.writeProperty("CATEGORIES", contact.getCategories(), ',');
+            }
+            if (contact.isFavorites()) {
+                vCard.writeProperty("X-FAVORITE", "true");
+            }
+            vCard.endCard();
+        }
+    }
+
+    private void writeNdjson(Iterator<UserState> contacts, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        while (contacts.hasNext()) {
+            generator.writeObject(CommonUtility.contactToMap(contacts.next()));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    // FN is required by vCard 3.0; it is left empty for a contact without names
+    private static String fullName(UserState contact) {
+        StringJoiner name = new StringJoiner(" ");
+        for (String part : new String[] { contact.getFirstName(), contact.getMiddleName(), contact.getLastName() }) {
+            if (part != null && !part.isBlank()) {
+                name.add(part.trim());
+            }
+        }
+        return name.toString();
+    }
+}
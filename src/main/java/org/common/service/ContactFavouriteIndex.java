@@ -0,0 +1,63 @@
+package org.common.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sorted set of the ids of favourite contacts, so a favourites page is a range read of the
+ * few flagged ids instead of a scan of the contacts table.
+ */
+@Component
+public class ContactFavouriteIndex implements ContactIndex {
+
+    private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+    // ConcurrentSkipListSet.size() walks the whole set
+    private final AtomicInteger size = new AtomicInteger();
+
+    @Override
+    public void index(UserState contact) {
+        if (contact.isFavorites()) {
+            if (ids.add(contact.getId())) {
+                size.incrementAndGet();
+            }
+        } else {
+            remove(contact.getId());
+        }
+    }
+
+    @Override
+    public void remove(Long contactId) {
+        if (ids.remove(contactId)) {
+            size.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void clear() {
+        ids.clear();
+        size.set(0);
+    }
+
+    public boolean contains(Long contactId) {
+        return ids.contains(contactId);
+    }
+
+    /**
+     * Up to limit favourite ids greater than afterId, in ascending order
+     */
+    public List<Long> page(long afterId, int limit) {
+        List<Long> page = new ArrayList<>(Math.min(limit, 1024));
+        Iterator<Long> iterator = ids.tailSet(afterId, false).iterator();
+        while (iterator.hasNext() && page.size() < limit) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
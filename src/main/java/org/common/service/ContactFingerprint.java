@@ -0,0 +1,126 @@
+package org.common.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Normalized, immutable view of a contact used for duplicate scoring.
+ *
+ * Everything the match rules need (lowercased names, digits-only phone, email domain,
+ * word set of the full name) is computed once here, so comparing two fingerprints
+ * does not allocate.
+ */
+public final class ContactFingerprint {
+
+    private static final String[] NO_WORDS = new String[0];
+
+    private final Long id;
+    private final String email;
+    private final String emailDomain;
+    private final String phone;
+    private final String fullName;
+    private final String firstName;
+    private final String lastName;
+    private final String[] nameWords;
+
+    private ContactFingerprint(UserState contact) {
+        this.id = contact.getId();
+
+        String rawEmail = contact.getEmailAddress();
+        boolean hasEmail = rawEmail != null && !rawEmail.trim().isEmpty();
+        this.email = hasEmail ? rawEmail.toLowerCase(Locale.ROOT) : null;
+        this.emailDomain = hasEmail && rawEmail.contains("@")
+                ? rawEmail.substring(rawEmail.lastIndexOf("@") + 1).toLowerCase() : "";
+
+        String rawPhone = contact.getMobileNumber();
+        boolean hasPhone = rawPhone != null && !rawPhone.trim().isEmpty();
+        this.phone = hasPhone ? rawPhone.replaceAll("[^0-9]", "") : null;
+
+        this.fullName = buildFullName(contact).toLowerCase().trim();
+        this.firstName = normalizeName(contact.getFirstName());
+        this.lastName = normalizeName(contact.getLastName());
+        this.nameWords = fullName.isEmpty() ? NO_WORDS
+                : new TreeSet<>(Arrays.asList(fullName.split("\\s+"))).toArray(NO_WORDS);
+    }
+
+    public static ContactFingerprint of(UserState contact) {
+        return new ContactFingerprint(contact);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Lowercased email address, null when the contact has no email
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean hasEmail() {
+        return email != null;
+    }
+
+    /**
+     * Lowercased email domain, empty when the email has no '@'
+     */
+    public String getEmailDomain() {
+        return emailDomain;
+    }
+
+    /**
+     * Digits of the mobile number, null when the contact has no phone
+     */
+    public String getPhone() {
+        return phone;
+    }
+
+    public boolean hasPhone() {
+        return phone != null;
+    }
+
+    /**
+     * Lowercased "first middle last" name, empty when no name part is set
+     */
+    public String getFullName() {
+        return fullName;
+    }
+
+    /**
+     * Lowercased, trimmed first name, null when blank
+     */
+    public String getFirstName() {
+        return firstName;
+    }
+
+    /**
+     * Lowercased, trimmed last name, null when blank
+     */
+    public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * Distinct words of the full name in sorted order
+     */
+    public String[] getNameWords() {
+        return nameWords;
+    }
+
+    private static String normalizeName(String name) {
+        return name != null && !name.trim().isEmpty() ? name.toLowerCase().trim() : null;
+    }
+
+    private static String buildFullName(UserState contact) {
+        StringBuilder fullName = new StringBuilder();
+        for (String part : new String[]{contact.getFirstName(), contact.getMiddleName(), contact.getLastName()}) {
+            if (part != null && !part.trim().isEmpty()) {
+                if (fullName.length() > 0) fullName.append(" ");
+                fullName.append(part.trim());
+            }
+        }
+        return fullName.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package org.common.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of contact fingerprints keyed by contact id, plus the match index:
+ * for every blocking key, the ids of the contacts that produce it.
+ * Entries are refreshed when a contact is created or updated and dropped when it is deleted.
+ */
+@Component
+public class ContactFingerprintIndex implements ContactIndex {
+
+    private final Map<Long, ContactFingerprint> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> blocks = new ConcurrentHashMap<>();
+    // Contacts whose phone is too short for a phone key, see DuplicateBlockingKeys#hasShortPhone
+    private final Set<Long> shortPhones = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private DuplicateBlockingKeys blockingKeys;
+
+    /**
+     * Fingerprint of the given entity as it is now. Neither reads nor changes the index, whose
+     * entries are only written by {@link ContactIndexMaintainer}.
+     */
+    public ContactFingerprint get(UserState contact) {
+        return ContactFingerprint.of(contact);
+    }
+
+    /**
+     * Cached fingerprint by id, null when the contact is not indexed
+     */
+    public ContactFingerprint get(Long contactId) {
+        return fingerprints.get(contactId);
+    }
+
+    public ContactFingerprint put(UserState contact) {
+        ContactFingerprint fingerprint = ContactFingerprint.of(contact);
+        ContactFingerprint previous = fingerprints.put(contact.getId(), fingerprint);
+        if (previous != null) {
+            removeFromBlocks(previous);
+        }
+        if (blockingKeys.hasShortPhone(fingerprint)) {
+            shortPhones.add(fingerprint.getId());
+        }
+        for (String key : blockingKeys.keysFor(fingerprint)) {
+            blocks.compute(key, (k, members) -> {
+                Set<Long> updated = members != null ? members : ConcurrentHashMap.newKeySet();
+                updated.add(fingerprint.getId());
+                return updated;
+            });
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public void index(UserState contact) {
+        put(contact);
+    }
+
+    @Override
+    public void remove(Long contactId) {
+        ContactFingerprint previous = fingerprints.remove(contactId);
+        if (previous != null) {
+            removeFromBlocks(previous);
+        }
+    }
+
+    @Override
+    public void clear() {
+        fingerprints.clear();
+        blocks.clear();
+        shortPhones.clear();
+    }
+
+    /**
+     * Fingerprints of every indexed contact sharing a blocking key with the given one.
+     * Fuzzy blocks above the configured maximum size only contribute the members in the target's
+     * and the adjacent name length buckets, as in the bulk scan. Short phones are matched by
+     * containment against every phone, also as in the bulk scan.
+     * Candidates are returned in ascending id order.
+     */
+    public List<ContactFingerprint> candidates(ContactFingerprint target) {
+        Set<Long> ids = new HashSet<>();
+        for (String key : blockingKeys.keysFor(target)) {
+            Set<Long> members = blocks.get(key);
+            if (members == null) {
+                continue;
+            }
+            if (blockingKeys.isOversized(key, members.size())) {
+                addByLengthBucket(key, members, target, ids);
+                continue;
+            }
+            ids.addAll(members);
+        }
+        if (blockingKeys.hasShortPhone(target)) {
+            for (ContactFingerprint fingerprint : fingerprints.values()) {
+                if (DuplicateBlockingKeys.phonesOverlap(target, fingerprint)) {
+                    ids.add(fingerprint.getId());
+                }
+            }
+        } else {
+            for (Long id : shortPhones) {
+                ContactFingerprint fingerprint = fingerprints.get(id);
+                if (fingerprint != null && DuplicateBlockingKeys.phonesOverlap(target, fingerprint)) {
+                    ids.add(id);
+                }
+            }
+        }
+        ids.remove(target.getId());
+        Long[] sortedIds = ids.toArray(new Long[0]);
+        Arrays.sort(sortedIds);
+
+        List<ContactFingerprint> candidates = new ArrayList<>(sortedIds.length);
+        for (Long id : sortedIds) {
+            ContactFingerprint candidate = fingerprints.get(id);
+            if (candidate != null) {
+                candidates.add(candidate);
+            }
+        }
+        return candidates;
+    }
+
+    private void addByLengthBucket(String key, Set<Long> members, ContactFingerprint target, Set<Long> ids) {
+        int targetBucket = blockingKeys.lengthBucket(target);
+        Map<Integer, List<Long>> buckets = new HashMap<>();
+        for (Long id : members) {
+            ContactFingerprint member = fingerprints.get(id);
+            if (member == null) {
+                continue;
+            }
+            int bucket = blockingKeys.lengthBucket(member);
+            if (Math.abs(bucket - targetBucket) <= 1) {
+                buckets.computeIfAbsent(bucket, b -> new ArrayList<>()).add(id);
+            }
+        }
+        List<Long> own = buckets.get(targetBucket);
+        if (own != null && blockingKeys.isOversized(key, own.size())) {
+            return;
+        }
+        for (List<Long> bucketMembers : buckets.values()) {
+            if (!blockingKeys.isOversized(key, bucketMembers.size())) {
+                ids.addAll(bucketMembers);
+            }
+        }
+    }
+
+    public int size() {
+        return fingerprints.size();
+    }
+
+    private void removeFromBlocks(ContactFingerprint fingerprint) {
+        shortPhones.remove(fingerprint.getId());
+        for (String key : blockingKeys.keysFor(fingerprint)) {
+            blocks.computeIfPresent(key, (k, members) -> {
+                members.remove(fingerprint.getId());
+                return members.isEmpty() ? null : members;
+            });
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package org.common.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.common.util.CommonUtility;
+import org.common.util.ContactIdGenerator;
+import org.common.util.CsvReader;
+import org.common.util.VCardReader;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Bulk import of contacts from CSV or vCard input.
+ *
+ * The input is parsed one record at a time and each record is validated with the same rules as
+ * {@code POST /contacts/create}. Valid contacts are written in chunks, one transaction per chunk,
+ * through JDBC batches of {@code contacts.import.batch-size} statements; the persistence context is
+ * flushed and cleared after every batch so memory use does not grow with the upload. Rejected rows
+ * are reported by line number and do not stop the import. A chunk that fails to write is rolled
+ * back and its rows are reported as failed.
+ */
+@Service
+public class ContactImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactImportService.class);
+
+    // Accepted CSV header spellings, after normalizeColumn, mapped to contact fields
+    private static final Map<String, String> CSV_COLUMNS = Map.ofEntries(
+        Map.entry("firstname", "firstName"),
+        Map.entry("middlename", "middleName"),
+        Map.entry("lastname", "lastName"),
+        Map.entry("emailaddress", "emailAddress"),
+        Map.entry("email", "emailAddress"),
+        Map.entry("mobilenumber", "mobileNumber"),
+        Map.entry("mobile", "mobileNumber"),
+        Map.entry("phone", "mobileNumber"),
+        Map.entry("favorites", "favorites"),
+        Map.entry("favorite", "favorites"),
+        Map.entry("favourites", "favorites"),
+        Map.entry("favourite", "favorites"),
+        Map.entry("categories", "categories")
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ContactIdGenerator idGenerator;
+
+    @Value("${contacts.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${contacts.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${contacts.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * Import CSV with a header row. Recognised columns (case-insensitive): firstName, middleName,
+     * lastName, emailAddress, mobileNumber, favorites and categories (ids separated by ';', '|' or
+     * ',' in a quoted field); other columns are ignored.
+     *
+     * @throws IllegalArgumentException if the header names neither firstName nor emailAddress
+     */
+    public ImportResult importCsv(Reader input) throws IOException {
+        CsvReader reader = new CsvReader(input);
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            return new ImportResult();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = CSV_COLUMNS.get(normalizeColumn(header.get(i)));
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        if (!columns.containsKey("firstName") && !columns.containsKey("emailAddress")) {
+            throw new IllegalArgumentException("CSV header must contain a firstName or emailAddress column");
+        }
+
+        Importer importer = new Importer();
+        while (true) {
+            List<String> record;
+            try {
+                record = reader.readRecord();
+            } catch (IllegalArgumentException e) {
+                importer.reject(reader.getRecordLineNumber(), e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            if (record.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            int line = reader.getRecordLineNumber();
+            try {
+                UserState contact = new UserState();
+                contact.setFirstName(field(record, columns, "firstName"));
+                contact.setMiddleName(field(record, columns, "middleName"));
+                contact.setLastName(field(record, columns, "lastName"));
+                contact.setEmailAddress(field(record, columns, "emailAddress"));
+                contact.setMobileNumber(field(record, columns, "mobileNumber"));
+                contact.setFavorites(parseFavorites(field(record, columns, "favorites")));
+                contact.setCategories(splitCategories(field(record, columns, "categories"), "[;|,]"));
+                importer.add(line, contact);
+            } catch (IllegalArgumentException e) {
+                importer.reject(line, e.getMessage());
+            }
+        }
+        return importer.finish();
+    }
+
+    /**
+     * Import vCards. N supplies the names (FN is the first name when N is missing or empty), the
+     * first EMAIL and TEL the email address and mobile number, CATEGORIES the category ids and
+     * X-FAVORITE the flag.
+     */
+    public ImportResult importVCard(Reader input) throws IOException {
+        VCardReader reader = new VCardReader(input);
+        Importer importer = new Importer();
+        while (true) {
+            Map<String, List<String>> card;
+            try {
+                card = reader.readCard();
+            } catch (IllegalArgumentException e) {
+                importer.reject(reader.getCardLineNumber(), e.getMessage());
+                break;
+            }
+            if (card == null) {
+                break;
+            }
+            int line = reader.getCardLineNumber();
+            try {
+                UserState contact = new UserState();
+                String name = first(card, "N");
+                if (name != null) {
+                    // N: family;given;additional;prefixes;suffixes
+                    List<String> parts = VCardReader.splitValue(name, ';');
+                    contact.setLastName(blankToNull(parts.get(0)));
+                    contact.setFirstName(parts.size() > 1 ? blankToNull(parts.get(1)) : null);
+                    contact.setMiddleName(parts.size() > 2 ? blankToNull(parts.get(2)) : null);
+                }
+                if (contact.getFirstName() == null && contact.getLastName() == null
+                        && contact.getMiddleName() == null && first(card, "FN") != null) {
+                    contact.setFirstName(unescaped(first(card, "FN")));
+                }
+                contact.setEmailAddress(unescaped(first(card, "EMAIL")));
+                contact.setMobileNumber(unescaped(first(card, "TEL")));
+                contact.setFavorites(parseFavorites(unescaped(first(card, "X-FAVORITE"))));
+                String categories = first(card, "CATEGORIES");
+                contact.setCategories(categories == null ? null
+                        : new ArrayList<>(VCardReader.splitValue(categories, ',').stream()
+                            .map(String::trim).filter(category -> !category.isEmpty()).toList()));
+                importer.add(line, contact);
+            } catch (IllegalArgumentException e) {
+                importer.reject(line, e.getMessage());
+            }
+        }
+        return importer.finish();
+    }
+
+    private static String normalizeColumn(String column) {
+        return column.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index != null && index < record.size() ? blankToNull(record.get(index)) : null;
+    }
+
+    private static String first(Map<String, List<String>> card, String property) {
+        List<String> values = card.get(property);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static String unescaped(String value) {
+        return value == null ? null : blankToNull(VCardReader.unescape(value));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static boolean parseFavorites(String value) {
+        if (value == null) {
+            return false;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1" -> true;
+            case "false", "no", "n", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid favorites value: " + value);
+        };
+    }
+
+    private static ArrayList<String> splitCategories(String value, String separators) {
+        if (value == null) {
+            return null;
+        }
+        ArrayList<String> categories = new ArrayList<>();
+        for (String category : value.split(separators)) {
+            if (!category.isBlank()) {
+                categories.add(category.trim());
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Collects validated contacts into chunks and writes each chunk in its own transaction
+     */
+    private class Importer {
+
+        private final ImportResult result = new ImportResult();
+        private final List<UserState> chunk = new ArrayList<>(chunkSize);
+        private final List<Integer> chunkLines = new ArrayList<>(chunkSize);
+
+        void add(int line, UserState contact) {
+            String validationError = CommonUtility.validateContactInfo(
+                    contact.getFirstName(), contact.getEmailAddress(), contact.getMobileNumber());
+            if (validationError != null) {
+                reject(line, validationError);
+                return;
+            }
+            chunk.add(contact);
+            chunkLines.add(line);
+            if (chunk.size() >= chunkSize) {
+                writeChunk();
+            }
+        }
+
+        void reject(int line, String message) {
+            result.addError(line, message, maxReportedErrors);
+        }
+
+        ImportResult finish() {
+            writeChunk();
+            return result;
+        }
+
+        private void writeChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            long[] ids = idGenerator.nextIds(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).setId(ids[i]);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        entityManager.persist(chunk.get(i));
+                        if ((i + 1) % batchSize == 0) {
+                            entityManager.flush();
+                            entityManager.clear();
+                        }
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                result.imported += chunk.size();
+                for (UserState contact : chunk) {
+                    eventPublisher.publishEvent(ContactChangedEvent.created(contact));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Contact import chunk of {} rows starting on line {} failed", chunk.size(), chunkLines.get(0), e);
+                for (Integer line : chunkLines) {
+                    reject(line, "Not saved: " + e.getMessage());
+                }
+            }
+            chunk.clear();
+            chunkLines.clear();
+        }
+    }
+
+    /**
+     * Outcome of an import: rows saved, rows rejected, and the first rejected rows with their reason
+     */
+    public static final class ImportResult {
+        private long imported;
+        private long failed;
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * Line number and message of each rejected row, up to contacts.import.max-reported-errors
+         */
+        public List<Map<String, Object>> getErrors() {
+            return errors;
+        }
+
+        public boolean isErrorsTruncated() {
+            return failed > errors.size();
+        }
+
+        void addError(int line, String message, int maxErrors) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(Map.of("line", line, "error", String.valueOf(message)));
+            }
+        }
+    }
+}
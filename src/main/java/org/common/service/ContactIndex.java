@@ -0,0 +1,27 @@
+package org.common.service;
+
+/**
+ * In-memory structure derived from the contacts table.
+ * Implementations are filled at startup and kept current by {@link ContactIndexMaintainer}.
+ */
+public interface ContactIndex {
+
+    /**
+     * Add a contact, replacing any previous entry with the same id
+     */
+    void index(UserState contact);
+
+    void remove(Long contactId);
+
+    /**
+     * Drop every entry before a full rebuild
+     */
+    void clear();
+
+    /**
+     * Called once a full rebuild has indexed every contact, before the indexes are served
+     */
+    default void rebuilt() {
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.common.service;
+
+import org.common.repository.ContactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Keeps every {@link ContactIndex} in sync with the contacts table:
+ * a full rebuild on startup, then one update per {@link ContactChangedEvent}.
+ *
+ * Events keep being applied while the table is streamed. Contacts changed by an event during the
+ * rebuild are newer than the streamed rows, so their rows are skipped when they come by; a lock
+ * makes checking and indexing a row atomic with respect to applying an event.
+ */
+@Component
+public class ContactIndexMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(ContactIndexMaintainer.class);
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private List<ContactIndex> indexes;
+
+    private final Object lock = new Object();
+
+    // Ids changed by an event since the current rebuild started, null when no rebuild is running.
+    // Guarded by lock.
+    private Set<Long> changedDuringRebuild;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        Set<Long> changed = new HashSet<>();
+        synchronized (lock) {
+            changedDuringRebuild = changed;
+            indexes.forEach(ContactIndex::clear);
+        }
+        long[] count = {0};
+        try (Stream<UserState> contacts = contactRepository.streamAll()) {
+            contacts.forEach(contact -> {
+                synchronized (lock) {
+                    if (changed.contains(contact.getId())) {
+                        return;
+                    }
+                    for (ContactIndex index : indexes) {
+                        index.index(contact);
+                    }
+                }
+                count[0]++;
+            });
+            synchronized (lock) {
+                indexes.forEach(ContactIndex::rebuilt);
+            }
+        } finally {
+            synchronized (lock) {
+                changedDuringRebuild = null;
+            }
+        }
+        ready = true;
+        log.info("Rebuilt {} contact indexes from {} contacts, {} changed during the rebuild",
+            indexes.size(), count[0], changed.size());
+    }
+
+    /**
+     * Runs before any other listener so they observe the updated indexes
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onContactChanged(ContactChangedEvent event) {
+        synchronized (lock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event.getContactId());
+            }
+            for (ContactIndex index : indexes) {
+                if (event.isDeleted()) {
+                    index.remove(event.getContactId());
+                } else {
+                    index.index(event.getContact());
+                }
+            }
+        }
+    }
+
+    /**
+     * True once the startup rebuild has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+}
@@ -0,0 +1,124 @@
+package org.common.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Partial update of one contact for {@code POST /contacts/batch/update}: fields left null are unchanged.
+ */
+public class ContactPatch {
+
+    private Long id;
+    private String firstName;
+    private String middleName;
+    private String lastName;
+    private String emailAddress;
+    private String mobileNumber;
+    private Boolean favorites;
+    private ArrayList<String> categories;
+
+    public ContactPatch() {
+    }
+
+    /**
+     * The fields this patch sets, by entity attribute name, in a fixed order
+     */
+    public Map<String, Object> changes() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfSet(changes, "firstName", firstName);
+        putIfSet(changes, "middleName", middleName);
+        putIfSet(changes, "lastName", lastName);
+        putIfSet(changes, "emailAddress", emailAddress);
+        putIfSet(changes, "mobileNumber", mobileNumber);
+        putIfSet(changes, "favorites", favorites);
+        putIfSet(changes, "categories", categories);
+        return changes;
+    }
+
+    /**
+     * A copy of the contact with this patch applied
+     */
+    public UserState applyTo(UserState contact) {
+        UserState patched = new UserState();
+        patched.setId(contact.getId());
+        patched.setFirstName(firstName != null ? firstName : contact.getFirstName());
+        patched.setMiddleName(middleName != null ? middleName : contact.getMiddleName());
+        patched.setLastName(lastName != null ? lastName : contact.getLastName());
+        patched.setEmailAddress(emailAddress != null ? emailAddress : contact.getEmailAddress());
+        patched.setMobileNumber(mobileNumber != null ? mobileNumber : contact.getMobileNumber());
+        patched.setFavorites(favorites != null ? favorites : contact.isFavorites());
+        patched.setCategories(categories != null ? categories : contact.getCategories());
+        return patched;
+    }
+
+    private static void putIfSet(Map<String, Object> changes, String field, Object value) {
+        if (value != null) {
+            changes.put(field, value);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getMiddleName() {
+        return middleName;
+    }
+
+    public void setMiddleName(String middleName) {
+        this.middleName = middleName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmailAddress() {
+        return emailAddress;
+    }
+
+    public void setEmailAddress(String emailAddress) {
+        this.emailAddress = emailAddress;
+    }
+
+    public String getMobileNumber() {
+        return mobileNumber;
+    }
+
+    public void setMobileNumber(String mobileNumber) {
+        this.mobileNumber = mobileNumber;
+    }
+
+    public Boolean getFavorites() {
+        return favorites;
+    }
+
+    public void setFavorites(Boolean favorites) {
+        this.favorites = favorites;
+    }
+
+    public ArrayList<String> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(ArrayList<String> categories) {
+        this.categories = categories;
+    }
+}
@@ -0,0 +1,176 @@
+package org.common.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram index over first name, last name and email address, answering the
+ * case-insensitive substring searches of {@code GET /contacts/search} without a table scan.
+ *
+ * Every field value is split into overlapping three-character grams, each mapping to the ids of
+ * the contacts containing it. A query intersects the posting lists of its grams, smallest first,
+ * then verifies the remaining candidates against the stored values, since sharing all grams does
+ * not guarantee a substring match. Queries shorter than a gram are checked against the stored
+ * values directly. Results are ranked exact match first, then prefix, then substring.
+ */
+@Component
+public class ContactSearchIndex implements ContactIndex {
+
+    private static final int GRAM_SIZE = 3;
+    // firstName, lastName, emailAddress
+    private static final int FIELD_COUNT = 3;
+
+    private final Map<Long, String[]> values = new ConcurrentHashMap<>();
+    private final List<Map<String, Set<Long>>> postings = new ArrayList<>();
+
+    public ContactSearchIndex() {
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            postings.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void index(UserState contact) {
+        String[] fieldValues = {
+            normalize(contact.getFirstName()),
+            normalize(contact.getLastName()),
+            normalize(contact.getEmailAddress())
+        };
+        String[] previous = values.put(contact.getId(), fieldValues);
+        if (previous != null) {
+            removePostings(contact.getId(), previous);
+        }
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            for (String gram : grams(fieldValues[field])) {
+                postings.get(field).compute(gram, (k, ids) -> {
+                    Set<Long> updated = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    updated.add(contact.getId());
+                    return updated;
+                });
+            }
+        }
+    }
+
+    @Override
+    public void remove(Long contactId) {
+        String[] previous = values.remove(contactId);
+        if (previous != null) {
+            removePostings(contactId, previous);
+        }
+    }
+
+    @Override
+    public void clear() {
+        values.clear();
+        postings.forEach(Map::clear);
+    }
+
+    /**
+     * Ids of the contacts whose fields contain every given term (null or blank terms are ignored),
+     * best matches first, at most limit results
+     */
+    public List<Long> search(String firstName, String lastName, String emailAddress, int limit) {
+        String[] terms = { normalize(firstName), normalize(lastName), normalize(emailAddress) };
+
+        // Posting lists of every gram of every term, smallest first
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            for (String gram : grams(terms[field])) {
+                Set<Long> ids = postings.get(field).get(gram);
+                if (ids == null) {
+                    return Collections.emptyList();
+                }
+                lists.add(ids);
+            }
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Collection<Long> candidates = lists.isEmpty() ? values.keySet() : lists.get(0);
+        List<long[]> ranked = new ArrayList<>();
+        for (Long id : candidates) {
+            if (!inAll(id, lists)) {
+                continue;
+            }
+            String[] fieldValues = values.get(id);
+            if (fieldValues == null) {
+                continue;
+            }
+            int rank = rank(fieldValues, terms);
+            if (rank >= 0) {
+                ranked.add(new long[] { rank, id });
+            }
+        }
+
+        ranked.sort((a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1]));
+        List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            ids.add(ranked.get(i)[1]);
+        }
+        return ids;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    private static boolean inAll(Long id, List<Set<Long>> lists) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sum over the searched fields of 3 (exact), 2 (prefix) or 1 (substring); -1 if any term is missing
+     */
+    private static int rank(String[] fieldValues, String[] terms) {
+        int rank = 0;
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            String term = terms[field];
+            if (term.isEmpty()) {
+                continue;
+            }
+            String value = fieldValues[field];
+            if (value.equals(term)) {
+                rank += 3;
+            } else if (value.startsWith(term)) {
+                rank += 2;
+            } else if (value.contains(term)) {
+                rank += 1;
+            } else {
+                return -1;
+            }
+        }
+        return rank;
+    }
+
+    private void removePostings(Long contactId, String[] fieldValues) {
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            for (String gram : grams(fieldValues[field])) {
+                postings.get(field).computeIfPresent(gram, (k, ids) -> {
+                    ids.remove(contactId);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    private static Set<String> grams(String value) {
+        if (value.length() < GRAM_SIZE) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
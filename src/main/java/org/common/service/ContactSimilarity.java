@@ -0,0 +1,197 @@
+package org.common.service;
+
+import org.common.util.EditDistance;
+
+/**
+ * Similarity measures between contact fingerprints used by the match rules.
+ */
+final class ContactSimilarity {
+
+    static final double NAME_COMPONENT_THRESHOLD = 0.8;
+    // Weight of the better name component when the other one is not similar enough
+    static final double SINGLE_COMPONENT_WEIGHT = 0.7;
+
+    private ContactSimilarity() {
+    }
+
+    /**
+     * Calculate name similarity using multiple algorithms.
+     * Edit distances are bounded by minScore, so scores below it are lower bounds
+     * rather than exact values; they can never produce a match either way.
+     */
+    static double nameSimilarity(ContactFingerprint contact1, ContactFingerprint contact2, double minScore) {
+        String fullName1 = contact1.getFullName();
+        String fullName2 = contact2.getFullName();
+
+        if (fullName1.isEmpty() || fullName2.isEmpty()) {
+            return 0.0;
+        }
+
+        // Exact match
+        if (fullName1.equals(fullName2)) {
+            return 1.0;
+        }
+
+        // Levenshtein distance
+        double levenshteinScore = boundedLevenshteinScore(fullName1, fullName2, minScore);
+
+        // Jaccard similarity (word-based)
+        double jaccardScore = jaccardSimilarity(contact1.getNameWords(), contact2.getNameWords());
+
+        // Name component analysis
+        double componentScore = nameComponentSimilarity(contact1, contact2, minScore);
+
+        // Return the highest score
+        return Math.max(Math.max(levenshteinScore, jaccardScore), componentScore);
+    }
+
+    /**
+     * Calculate similarity between individual name components.
+     * Component scores are exact from NAME_COMPONENT_THRESHOLD or, for a lower minScore, from the
+     * level at which a single weighted component could still reach minScore.
+     */
+    static double nameComponentSimilarity(ContactFingerprint contact1, ContactFingerprint contact2, double minScore) {
+        double componentMinScore = Math.min(NAME_COMPONENT_THRESHOLD, minScore / SINGLE_COMPONENT_WEIGHT);
+        double firstNameScore = 0.0;
+        double lastNameScore = 0.0;
+
+        // First name comparison
+        if (contact1.getFirstName() != null && contact2.getFirstName() != null) {
+            String fn1 = contact1.getFirstName();
+            String fn2 = contact2.getFirstName();
+            if (fn1.equals(fn2)) {
+                firstNameScore = 1.0;
+            } else {
+                firstNameScore = boundedLevenshteinScore(fn1, fn2, componentMinScore);
+            }
+        }
+
+        // Last name comparison
+        if (contact1.getLastName() != null && contact2.getLastName() != null) {
+            String ln1 = contact1.getLastName();
+            String ln2 = contact2.getLastName();
+            if (ln1.equals(ln2)) {
+                lastNameScore = 1.0;
+            } else {
+                lastNameScore = boundedLevenshteinScore(ln1, ln2, componentMinScore);
+            }
+        }
+
+        // If both first and last names are similar, it's a strong match
+        if (firstNameScore > NAME_COMPONENT_THRESHOLD && lastNameScore > NAME_COMPONENT_THRESHOLD) {
+            return (firstNameScore + lastNameScore) / 2;
+        }
+
+        // If only one name component matches well, lower the score
+        return Math.max(firstNameScore, lastNameScore) * SINGLE_COMPONENT_WEIGHT;
+    }
+
+    /**
+     * Upper bound of {@link #nameSimilarity} from lengths alone: an edit distance is at least the
+     * length difference, and a Jaccard similarity at most the ratio of the word counts. The parts
+     * are combined like nameSimilarity combines the scores they bound.
+     */
+    static double nameSimilarityBound(ContactFingerprint contact1, ContactFingerprint contact2) {
+        String fullName1 = contact1.getFullName();
+        String fullName2 = contact2.getFullName();
+        if (fullName1.isEmpty() || fullName2.isEmpty()) {
+            return 0.0;
+        }
+
+        double levenshteinBound = lengthBound(fullName1, fullName2);
+
+        int words1 = contact1.getNameWords().length;
+        int words2 = contact2.getNameWords().length;
+        double jaccardBound = (double) Math.min(words1, words2) / Math.max(words1, words2);
+
+        double firstNameBound = lengthBound(contact1.getFirstName(), contact2.getFirstName());
+        double lastNameBound = lengthBound(contact1.getLastName(), contact2.getLastName());
+        double componentBound = firstNameBound > NAME_COMPONENT_THRESHOLD && lastNameBound > NAME_COMPONENT_THRESHOLD
+                ? (firstNameBound + lastNameBound) / 2
+                : Math.max(firstNameBound, lastNameBound) * SINGLE_COMPONENT_WEIGHT;
+
+        return Math.max(Math.max(levenshteinBound, jaccardBound), componentBound);
+    }
+
+    /**
+     * Largest Levenshtein similarity two strings of these lengths can have, 0 when either is null
+     */
+    private static double lengthBound(String str1, String str2) {
+        if (str1 == null || str2 == null) {
+            return 0.0;
+        }
+        return 1.0 - (double) Math.abs(str1.length() - str2.length()) / Math.max(str1.length(), str2.length());
+    }
+
+    /**
+     * Calculate phone number similarity on digits-only numbers
+     */
+    static double phoneSimilarity(String normalized1, String normalized2, double containmentScore, double localNumberScore) {
+        if (normalized1.equals(normalized2)) {
+            return 1.0;
+        }
+
+        // Check if one is a substring of the other (different formats)
+        if (normalized1.contains(normalized2) || normalized2.contains(normalized1)) {
+            return containmentScore;
+        }
+
+        // Check last 7 digits (local number similarity)
+        if (normalized1.length() >= 7 && normalized2.length() >= 7) {
+            if (normalized1.regionMatches(normalized1.length() - 7, normalized2, normalized2.length() - 7, 7)) {
+                return localNumberScore;
+            }
+        }
+
+        return 0.0;
+    }
+
+    /**
+     * Calculate Jaccard similarity for word-based comparison.
+     * Both arrays hold distinct words in sorted order, so the intersection is a single merge pass.
+     */
+    static double jaccardSimilarity(String[] words1, String[] words2) {
+        int intersection = 0;
+        int i = 0;
+        int j = 0;
+        while (i < words1.length && j < words2.length) {
+            int cmp = words1[i].compareTo(words2[j]);
+            if (cmp == 0) {
+                intersection++;
+                i++;
+                j++;
+            } else if (cmp < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        int union = words1.length + words2.length - intersection;
+        return union == 0 ? 0.0 : (double) intersection / union;
+    }
+
+    /**
+     * Levenshtein similarity (1 - distance / longer length) of two strings.
+     * Exact when the similarity reaches minScore; otherwise only the search is cut short
+     * and the returned value is some score below minScore.
+     */
+    static double boundedLevenshteinScore(String str1, String str2, double minScore) {
+        int length = Math.max(str1.length(), str2.length());
+
+        // Largest distance whose score still reaches minScore, using the same arithmetic as the score
+        int maxDistance = (int) ((1.0 - minScore) * length);
+        while (maxDistance < length && 1.0 - (double) (maxDistance + 1) / length >= minScore) {
+            maxDistance++;
+        }
+        while (maxDistance >= 0 && 1.0 - (double) maxDistance / length < minScore) {
+            maxDistance--;
+        }
+        if (maxDistance < 0) {
+            return 0.0;
+        }
+
+        int distance = EditDistance.bounded(str1, str2, maxDistance);
+        return 1.0 - (double) distance / length;
+    }
+}
@@ -0,0 +1,157 @@
+package org.common.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Prefix index for type-ahead suggestions over first name, last name, full name and email address.
+ *
+ * Terms are kept in sorted skip lists keyed by term and contact id, so the matches for a prefix are
+ * one contiguous range read in term order. Favourites have their own list, which is read first.
+ * Each entry carries what a suggestion displays, so answering a request never touches the database.
+ */
+@Component
+public class ContactSuggestIndex implements ContactIndex {
+
+    private static final char ID_SEPARATOR = '\u0000';
+    private static final char RANGE_END = '\uffff';
+
+    private final Map<Long, Suggestion> suggestions = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Long> allTerms = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Long> favouriteTerms = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void index(UserState contact) {
+        Suggestion suggestion = new Suggestion(contact);
+        Suggestion previous = suggestions.put(contact.getId(), suggestion);
+        if (previous != null) {
+            removeTerms(previous);
+        }
+        for (String key : suggestion.keys) {
+            allTerms.put(key, suggestion.id);
+            if (suggestion.favorite) {
+                favouriteTerms.put(key, suggestion.id);
+            }
+        }
+    }
+
+    @Override
+    public void remove(Long contactId) {
+        Suggestion previous = suggestions.remove(contactId);
+        if (previous != null) {
+            removeTerms(previous);
+        }
+    }
+
+    @Override
+    public void clear() {
+        suggestions.clear();
+        allTerms.clear();
+        favouriteTerms.clear();
+    }
+
+    /**
+     * Up to limit contacts with a term starting with the prefix: favourites first, then by matching term
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String from = prefix.trim().toLowerCase(Locale.ROOT);
+        if (from.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String to = from + RANGE_END;
+
+        Set<Long> ids = new LinkedHashSet<>();
+        collect(favouriteTerms.subMap(from, to), ids, limit);
+        collect(allTerms.subMap(from, to), ids, limit);
+
+        List<Suggestion> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Suggestion suggestion = suggestions.get(id);
+            if (suggestion != null) {
+                result.add(suggestion);
+            }
+        }
+        return result;
+    }
+
+    private static void collect(Map<String, Long> range, Set<Long> ids, int limit) {
+        for (Long id : range.values()) {
+            if (ids.size() >= limit) {
+                return;
+            }
+            ids.add(id);
+        }
+    }
+
+    private void removeTerms(Suggestion suggestion) {
+        for (String key : suggestion.keys) {
+            allTerms.remove(key);
+            favouriteTerms.remove(key);
+        }
+    }
+
+    /**
+     * What a suggestion shows for one contact
+     */
+    public static final class Suggestion {
+        private final Long id;
+        private final String name;
+        private final String emailAddress;
+        private final boolean favorite;
+        private final List<String> keys = new ArrayList<>(4);
+
+        Suggestion(UserState contact) {
+            this.id = contact.getId();
+            this.name = join(contact.getFirstName(), contact.getLastName());
+            this.emailAddress = contact.getEmailAddress();
+            this.favorite = contact.isFavorites();
+            addKey(contact.getFirstName());
+            addKey(contact.getLastName());
+            addKey(name);
+            addKey(emailAddress);
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getEmailAddress() {
+            return emailAddress;
+        }
+
+        public boolean isFavorite() {
+            return favorite;
+        }
+
+        private void addKey(String term) {
+            if (term == null || term.isBlank()) {
+                return;
+            }
+            String key = term.trim().toLowerCase(Locale.ROOT) + ID_SEPARATOR + id;
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+
+        private static String join(String firstName, String lastName) {
+            StringBuilder name = new StringBuilder();
+            if (firstName != null && !firstName.isBlank()) {
+                name.append(firstName.trim());
+            }
+            if (lastName != null && !lastName.isBlank()) {
+                if (name.length() > 0) {
+                    name.append(' ');
+                }
+                name.append(lastName.trim());
+            }
+            return name.toString();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.common.service;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress marker of a scheduled job: contacts modified up to {@code watermark} have been processed.
+ */
+@Entity
+@Table(name = "dedup_watermarks")
+public class DedupWatermark {
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "watermark")
+    private LocalDateTime watermark;
+
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "contacts_checked")
+    private long contactsChecked;
+
+    @Column(name = "duplicates_found")
+    private long duplicatesFound;
+
+    public DedupWatermark() {
+    }
+
+    public DedupWatermark(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(LocalDateTime watermark) {
+        this.watermark = watermark;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public long getContactsChecked() {
+        return contactsChecked;
+    }
+
+    public void setContactsChecked(long contactsChecked) {
+        this.contactsChecked = contactsChecked;
+    }
+
+    public long getDuplicatesFound() {
+        return duplicatesFound;
+    }
+
+    public void setDuplicatesFound(long duplicatesFound) {
+        this.duplicatesFound = duplicatesFound;
+    }
+}
@@ -0,0 +1,315 @@
+package org.common.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Blocking keys used to generate duplicate candidates.
+ *
+ * Two contacts are only scored against each other when they share at least one key,
+ * which turns the full pairwise scan into a near-linear pass over the blocks.
+ * Exact keys (email, phone) are never truncated. A fuzzy block (name, domain + name, MinHash bands)
+ * that grows beyond the configured maximum size is split by a secondary key, the length bucket of
+ * the full name: only members in the same or adjacent buckets are paired, and only while those
+ * sub-blocks are themselves within the maximum size.
+ *
+ * Phones are keyed by every 7-digit window. A phone with fewer digits shares no window with the
+ * numbers that contain it, so it is instead compared directly with every other phone; such numbers
+ * are rare. Phones without any digits are not blocked on.
+ */
+@Component
+public class DuplicateBlockingKeys {
+
+    static final String EMAIL_KEY = "E:";
+    static final String PHONE_KEY = "P:";
+    static final String DOMAIN_NAME_KEY = "D:";
+    static final String PHONETIC_KEY = "S:";
+    static final String PREFIX_KEY = "N:";
+    static final String LSH_KEY = "L:";
+    static final String TOKEN_SET_KEY = "W:";
+    static final String HEAD_KEY = "H:";
+    static final String TAIL_KEY = "T:";
+
+    private static final int LOCAL_PHONE_DIGITS = 7;
+    private static final int NAME_PREFIX_LENGTH = 3;
+    // Token sets this large also get a key per one-token-smaller subset: at Jaccard >= 0.75 such
+    // names differ from a match by at most one token
+    private static final int TOKEN_SUBSET_MIN_TOKENS = 4;
+    // Full names whose normalized edit distance reaches the default 0.75 threshold have lengths
+    // within this ratio, so they fall in the same or adjacent length buckets
+    private static final double LENGTH_BUCKET_RATIO = 0.75;
+    private static final double LOG_LENGTH_BUCKET = Math.log(1 / LENGTH_BUCKET_RATIO);
+
+    /**
+     * Maximum size of a fuzzy block; larger blocks are only expanded by length bucket
+     */
+    private final int maxFuzzyBlockSize;
+
+    private final MinHashLsh lsh;
+
+    public DuplicateBlockingKeys(@Value("${duplicate.blocking.max-block-size:1000}") int maxFuzzyBlockSize,
+                                 @Value("${duplicate.lsh.bands:20}") int lshBands,
+                                 @Value("${duplicate.lsh.rows:3}") int lshRows) {
+        this.maxFuzzyBlockSize = maxFuzzyBlockSize;
+        this.lsh = new MinHashLsh(lshBands, lshRows);
+    }
+
+    /**
+     * Compute every blocking key of a contact
+     */
+    public List<String> keysFor(ContactFingerprint contact) {
+        List<String> keys = new ArrayList<>(16 + lsh.getBands());
+
+        if (contact.hasEmail()) {
+            keys.add(EMAIL_KEY + contact.getEmail());
+        }
+
+        if (contact.hasPhone()) {
+            // Every 7-digit window: covers equal numbers, equal local parts and one number containing
+            // the other. Shorter numbers are paired by hasShortPhone / phonesOverlap instead.
+            String digits = contact.getPhone();
+            for (int start = 0; start + LOCAL_PHONE_DIGITS <= digits.length(); start++) {
+                keys.add(PHONE_KEY + digits.substring(start, start + LOCAL_PHONE_DIGITS));
+            }
+        }
+
+        if (contact.getFullName().isEmpty()) {
+            return keys;
+        }
+
+        String[] tokens = contact.getFullName().split("\\s+");
+        String first = tokens[0];
+        String last = tokens[tokens.length - 1];
+        if (tokens.length == 1) {
+            keys.add(PHONETIC_KEY + soundex(first));
+            keys.add(PREFIX_KEY + prefix(first));
+        } else {
+            keys.add(PHONETIC_KEY + soundex(first) + soundex(last));
+            keys.add(PREFIX_KEY + prefix(first) + "|" + prefix(last));
+        }
+
+        // Order-independent: the same names in another order or field score a Jaccard similarity of 1.0
+        String[] words = contact.getNameWords();
+        keys.add(TOKEN_SET_KEY + String.join(" ", words));
+        if (words.length >= TOKEN_SUBSET_MIN_TOKENS) {
+            for (int skip = 0; skip < words.length; skip++) {
+                StringJoiner subset = new StringJoiner(" ", TOKEN_SET_KEY, "");
+                for (int i = 0; i < words.length; i++) {
+                    if (i != skip) {
+                        subset.add(words[i]);
+                    }
+                }
+                keys.add(subset.toString());
+            }
+        }
+
+        // The name without its first or last token: catches differences the Soundex and prefix
+        // keys cannot, such as a mistyped first letter
+        if (tokens.length > 1) {
+            String fullName = contact.getFullName();
+            keys.add(HEAD_KEY + fullName.substring(0, fullName.length() - last.length()).trim());
+            keys.add(TAIL_KEY + fullName.substring(first.length()).trim());
+        }
+
+        if (contact.hasEmail() && !contact.getEmailDomain().isEmpty()) {
+            keys.add(DOMAIN_NAME_KEY + contact.getEmailDomain() + "|" + prefix(first));
+        }
+
+        // Locality-sensitive band keys over the full name's shingles, for fuzzy name matches
+        long[] bandHashes = lsh.bandHashes(contact.getFullName());
+        for (int band = 0; band < bandHashes.length; band++) {
+            keys.add(LSH_KEY + band + ":" + Long.toHexString(bandHashes[band]));
+        }
+
+        return keys;
+    }
+
+    /**
+     * Build the sorted, de-duplicated list of candidate pairs for a list of contacts.
+     * Each pair is packed as (i << 32 | j) with i < j, both indexes into the list.
+     */
+    public long[] candidatePairs(List<ContactFingerprint> contacts) {
+        Map<String, List<Integer>> blocks = new HashMap<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            for (String key : keysFor(contacts.get(i))) {
+                blocks.computeIfAbsent(key, k -> new ArrayList<>(2)).add(i);
+            }
+        }
+
+        PairBuffer pairs = new PairBuffer(Math.max(16, contacts.size()));
+        for (Map.Entry<String, List<Integer>> block : blocks.entrySet()) {
+            List<Integer> members = block.getValue();
+            if (members.size() < 2) {
+                continue;
+            }
+            if (!isOversized(block.getKey(), members.size())) {
+                pairs.addWithin(members, members);
+                continue;
+            }
+            // Split by length bucket and pair each bucket with itself and the next one
+            TreeMap<Integer, List<Integer>> buckets = new TreeMap<>();
+            for (Integer member : members) {
+                buckets.computeIfAbsent(lengthBucket(contacts.get(member)), b -> new ArrayList<>()).add(member);
+            }
+            for (Map.Entry<Integer, List<Integer>> bucket : buckets.entrySet()) {
+                List<Integer> bucketMembers = bucket.getValue();
+                if (isOversized(block.getKey(), bucketMembers.size())) {
+                    continue;
+                }
+                pairs.addWithin(bucketMembers, bucketMembers);
+                List<Integer> next = buckets.get(bucket.getKey() + 1);
+                if (next != null && !isOversized(block.getKey(), next.size())) {
+                    pairs.addWithin(bucketMembers, next);
+                }
+            }
+        }
+
+        // Short phones against every phone that contains them or that they contain
+        List<Integer> phones = new ArrayList<>();
+        List<Integer> shortPhones = new ArrayList<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            if (contacts.get(i).hasPhone() && !contacts.get(i).getPhone().isEmpty()) {
+                phones.add(i);
+                if (hasShortPhone(contacts.get(i))) {
+                    shortPhones.add(i);
+                }
+            }
+        }
+        for (Integer shortPhone : shortPhones) {
+            for (Integer phone : phones) {
+                if (!phone.equals(shortPhone) && phonesOverlap(contacts.get(shortPhone), contacts.get(phone))) {
+                    pairs.add(shortPhone, phone);
+                }
+            }
+        }
+
+        long[] sorted = pairs.pairs;
+        int count = pairs.count;
+        Arrays.sort(sorted, 0, count);
+        int unique = 0;
+        for (int k = 0; k < count; k++) {
+            if (unique == 0 || sorted[k] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[k];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+
+    /**
+     * Whether a block is too large to expand; only fuzzy blocks are ever limited
+     */
+    public boolean isOversized(String key, int blockSize) {
+        return !isExactKey(key) && maxFuzzyBlockSize > 0 && blockSize > maxFuzzyBlockSize;
+    }
+
+    /**
+     * Secondary key used to split oversized fuzzy blocks: the full name's length on a logarithmic
+     * scale. Only contacts in the same or adjacent buckets are paired within such a block.
+     */
+    public int lengthBucket(ContactFingerprint contact) {
+        return (int) (Math.log(Math.max(1, contact.getFullName().length())) / LOG_LENGTH_BUCKET);
+    }
+
+    /**
+     * Whether a contact's phone has digits but fewer than a local number, so it gets no phone key
+     */
+    public boolean hasShortPhone(ContactFingerprint contact) {
+        return contact.hasPhone() && !contact.getPhone().isEmpty() && contact.getPhone().length() < LOCAL_PHONE_DIGITS;
+    }
+
+    /**
+     * Whether one contact's phone digits contain the other's, as the phone containment rule checks
+     */
+    public static boolean phonesOverlap(ContactFingerprint first, ContactFingerprint second) {
+        if (!first.hasPhone() || !second.hasPhone() || first.getPhone().isEmpty() || second.getPhone().isEmpty()) {
+            return false;
+        }
+        return first.getPhone().contains(second.getPhone()) || second.getPhone().contains(first.getPhone());
+    }
+
+    static boolean isExactKey(String key) {
+        return key.startsWith(EMAIL_KEY) || key.startsWith(PHONE_KEY);
+    }
+
+    private static String prefix(String token) {
+        return token.length() > NAME_PREFIX_LENGTH ? token.substring(0, NAME_PREFIX_LENGTH) : token;
+    }
+
+    /**
+     * American Soundex code (letter + three digits) of a lowercase token
+     */
+    static String soundex(String token) {
+        char[] code = {'0', '0', '0', '0'};
+        int length = 0;
+        char previous = 0;
+        for (int i = 0; i < token.length() && length < code.length; i++) {
+            char c = token.charAt(i);
+            if (c < 'a' || c > 'z') {
+                continue;
+            }
+            char digit = soundexDigit(c);
+            if (length == 0) {
+                code[length++] = c;
+            } else if (digit != '0' && digit != previous) {
+                code[length++] = digit;
+            }
+            // 'h' and 'w' do not separate letters with the same code
+            if (c != 'h' && c != 'w') {
+                previous = digit;
+            }
+        }
+        return length == 0 ? "" : new String(code);
+    }
+
+    private static char soundexDigit(char c) {
+        switch (c) {
+            case 'b': case 'f': case 'p': case 'v':
+                return '1';
+            case 'c': case 'g': case 'j': case 'k': case 'q': case 's': case 'x': case 'z':
+                return '2';
+            case 'd': case 't':
+                return '3';
+            case 'l':
+                return '4';
+            case 'm': case 'n':
+                return '5';
+            case 'r':
+                return '6';
+            default:
+                return '0';
+        }
+    }
+
+    /**
+     * Growable array of packed candidate pairs
+     */
+    private static final class PairBuffer {
+        private long[] pairs;
+        private int count;
+
+        PairBuffer(int capacity) {
+            pairs = new long[capacity];
+        }
+
+        void add(int i, int j) {
+            if (count == pairs.length) {
+                pairs = Arrays.copyOf(pairs, pairs.length * 2);
+            }
+            pairs[count++] = i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+        }
+
+        /**
+         * Add every pair of distinct members taken from the two ascending index lists
+         */
+        void addWithin(List<Integer> first, List<Integer> second) {
+            boolean same = first == second;
+            for (int a = 0; a < first.size(); a++) {
+                for (int b = same ? a + 1 : 0; b < second.size(); b++) {
+                    add(first.get(a), second.get(b));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.common.service;
+
+import java.util.List;
+
+/**
+ * A group of contacts connected through pending duplicate pairs.
+ * The cluster is identified by its smallest contact id.
+ */
+public class DuplicateCluster {
+
+    private final List<Long> contactIds;
+    private final List<DuplicateContact> pairs;
+    private final double maxScore;
+
+    DuplicateCluster(List<Long> contactIds, List<DuplicateContact> pairs) {
+        this.contactIds = contactIds;
+        this.pairs = pairs;
+        double max = 0;
+        for (DuplicateContact pair : pairs) {
+            max = Math.max(max, pair.getSimilarityScore());
+        }
+        this.maxScore = max;
+    }
+
+    public Long getId() {
+        return contactIds.get(0);
+    }
+
+    /**
+     * Member contact ids in ascending order
+     */
+    public List<Long> getContactIds() {
+        return contactIds;
+    }
+
+    public List<DuplicateContact> getPairs() {
+        return pairs;
+    }
+
+    public int size() {
+        return contactIds.size();
+    }
+
+    public double getMaxScore() {
+        return maxScore;
+    }
+}
@@ -0,0 +1,182 @@
+package org.common.service;
+
+import org.common.repository.ContactRepository;
+import org.common.repository.DuplicateContactRepository;
+import org.common.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Groups pending duplicate pairs into clusters of contacts that are transitively connected,
+ * so a person stored five times is one cluster of five instead of ten separate pairs,
+ * and collapses a whole cluster in a single transaction.
+ *
+ * A cluster is found by a breadth-first search over pending pairs from one of its contacts,
+ * one batched query per level, so only the pairs of the clusters asked for are read.
+ */
+@Service
+public class DuplicateClusterService {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private DuplicateContactRepository duplicateContactRepository;
+
+    @Autowired
+    private DuplicateStatistics statistics;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Up to limit clusters with an id above afterId (null for the first page), in ascending id order
+     */
+    public List<DuplicateCluster> findClusters(Long afterId, int limit) {
+        List<DuplicateCluster> clusters = new ArrayList<>();
+        Set<Long> visited = new HashSet<>();
+        long cursor = afterId != null ? afterId : Long.MIN_VALUE;
+        while (clusters.size() < limit) {
+            List<Long> seeds = pendingContactIdsAfter(cursor);
+            if (seeds.isEmpty()) {
+                break;
+            }
+            for (Long seed : seeds) {
+                if (visited.contains(seed)) {
+                    continue;
+                }
+                DuplicateCluster cluster = component(seed);
+                visited.addAll(cluster.getContactIds());
+                // Seeds come in ascending order, so a smaller id means the cluster is on an earlier page
+                if (cluster.getId().equals(seed)) {
+                    clusters.add(cluster);
+                    if (clusters.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            cursor = seeds.get(seeds.size() - 1);
+        }
+        return clusters;
+    }
+
+    public Optional<DuplicateCluster> findCluster(Long clusterId) {
+        DuplicateCluster cluster = component(clusterId);
+        if (cluster.getPairs().isEmpty() || !cluster.getId().equals(clusterId)) {
+            return Optional.empty();
+        }
+        return Optional.of(cluster);
+    }
+
+    /**
+     * Keep one contact of the cluster and delete the others; every pair of the cluster that is
+     * still pending is marked MERGED. Deletes and status updates are issued as batched IN statements.
+     * Events and statistics follow once the transaction has committed.
+     * Returns the ids of the deleted contacts.
+     */
+    @Transactional
+    public List<Long> mergeCluster(DuplicateCluster cluster, Long keepContactId) {
+        List<Long> deleteContactIds = new ArrayList<>(cluster.getContactIds());
+        deleteContactIds.remove(keepContactId);
+
+        List<Long> pairIds = new ArrayList<>(cluster.getPairs().size());
+        for (DuplicateContact pair : cluster.getPairs()) {
+            pairIds.add(pair.getId());
+        }
+
+        List<Long> deletedContactIds = new ArrayList<>(deleteContactIds.size());
+        for (List<Long> batch : batches(deleteContactIds)) {
+            deletedContactIds.addAll(contactRepository.findExistingIds(batch));
+            contactRepository.deleteAllByIdIn(batch);
+        }
+        Collections.sort(deletedContactIds);
+
+        // Pairs resolved meanwhile by another request keep their status and are not counted
+        Set<Long> mergedPairIds = new HashSet<>();
+        for (List<Long> batch : batches(pairIds)) {
+            duplicateContactRepository.lockPendingByIds(batch).forEach(pair -> mergedPairIds.add(pair.getId()));
+        }
+        for (List<Long> batch : batches(new ArrayList<>(mergedPairIds))) {
+            duplicateContactRepository.updatePendingStatus(batch, "MERGED");
+        }
+
+        AfterCommit.run(() -> {
+            for (Long contactId : deletedContactIds) {
+                eventPublisher.publishEvent(ContactChangedEvent.deleted(contactId));
+            }
+            for (DuplicateContact pair : cluster.getPairs()) {
+                if (mergedPairIds.contains(pair.getId())) {
+                    pair.setStatus("MERGED");
+                    statistics.recordStatusChange(pair, "PENDING");
+                }
+            }
+        });
+        return deletedContactIds;
+    }
+
+    /**
+     * The cluster containing a contact: breadth-first search over pending pairs, one level per batch
+     * of queries. A contact without pending pairs yields a cluster of one with no pairs.
+     */
+    private DuplicateCluster component(Long seed) {
+        Set<Long> members = new HashSet<>();
+        members.add(seed);
+        Map<Long, DuplicateContact> pairs = new HashMap<>();
+        List<Long> frontier = List.of(seed);
+        while (!frontier.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for (List<Long> batch : batches(frontier)) {
+                for (DuplicateContact pair : duplicateContactRepository.findPendingDuplicatesForContacts(batch)) {
+                    if (pairs.putIfAbsent(pair.getId(), pair) != null) {
+                        continue;
+                    }
+                    for (Long contactId : new Long[] { pair.getContact1Id(), pair.getContact2Id() }) {
+                        if (members.add(contactId)) {
+                            next.add(contactId);
+                        }
+                    }
+                }
+            }
+            frontier = next;
+        }
+
+        List<Long> contactIds = new ArrayList<>(members);
+        Collections.sort(contactIds);
+        List<DuplicateContact> clusterPairs = new ArrayList<>(pairs.values());
+        clusterPairs.sort(Comparator.comparing(DuplicateContact::getId));
+        return new DuplicateCluster(contactIds, clusterPairs);
+    }
+
+    /**
+     * The next BATCH_SIZE distinct contact ids after the cursor that appear in a pending pair
+     */
+    private List<Long> pendingContactIdsAfter(long cursor) {
+        Pageable page = PageRequest.of(0, BATCH_SIZE);
+        TreeSet<Long> ids = new TreeSet<>(duplicateContactRepository.findPendingContact1IdsAfter(cursor, page));
+        ids.addAll(duplicateContactRepository.findPendingContact2IdsAfter(cursor, page));
+        List<Long> seeds = new ArrayList<>(BATCH_SIZE);
+        for (Long id : ids) {
+            if (seeds.size() == BATCH_SIZE) {
+                break;
+            }
+            seeds.add(id);
+        }
+        return seeds;
+    }
+
+    private static List<List<Long>> batches(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE)));
+        }
+        return batches;
+    }
+}
@@ -3,7 +3,13 @@ package org.common.service;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "duplicate_contacts")
+@Table(name = "duplicate_contacts",
+       uniqueConstraints = @UniqueConstraint(name = "uk_duplicate_pair", columnNames = {"contact1_id", "contact2_id"}),
+       indexes = {
+           @Index(name = "idx_duplicate_status_score_desc", columnList = "status, similarity_score DESC, id"),
+           @Index(name = "idx_duplicate_status_contact1", columnList = "status, contact1_id"),
+           @Index(name = "idx_duplicate_status_contact2", columnList = "status, contact2_id")
+       })
 public class DuplicateContact {
     
     @Id
@@ -33,10 +39,13 @@ public class DuplicateContact {
         this.status = "PENDING";
     }
     
+    /**
+     * Pairs are stored normalized (smaller id first) so the unique constraint covers both orders
+     */
     public DuplicateContact(Long contact1Id, Long contact2Id, Double similarityScore, String matchType) {
         this();
-        this.contact1Id = contact1Id;
-        this.contact2Id = contact2Id;
+        this.contact1Id = Math.min(contact1Id, contact2Id);
+        this.contact2Id = Math.max(contact1Id, contact2Id);
         this.similarityScore = similarityScore;
         this.matchType = matchType;
     }
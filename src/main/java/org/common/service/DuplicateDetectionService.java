@@ -2,55 +2,123 @@ package org.common.service;
 
 import org.common.repository.ContactRepository;
 import org.common.repository.DuplicateContactRepository;
+import org.common.util.LongPairSet;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DuplicateDetectionService {
     
+    private static final int PAIR_LOOKUP_BATCH_SIZE = 500;
+    
     @Autowired
     private ContactRepository contactRepository;
     
     @Autowired
     private DuplicateContactRepository duplicateContactRepository;
     
+    @Autowired
+    private ContactFingerprintIndex fingerprintIndex;
+    
+    @Autowired
+    private ContactIndexMaintainer indexMaintainer;
+    
+    @Autowired
+    private DuplicateBlockingKeys blockingKeys;
+    
+    @Autowired
+    private DuplicateStatistics statistics;
+    
+    @Autowired
+    private MatchRulePipeline matchRules;
+    
+    /**
+     * Number of worker threads used by the duplicate scan (0 = one per available core)
+     */
+    @Value("${duplicate.scan.parallelism:0}")
+    private int scanParallelism;
+    
+    private ForkJoinPool scanPool;
+    
+    @PostConstruct
+    void startScanPool() {
+        int parallelism = scanParallelism > 0 ? scanParallelism : Runtime.getRuntime().availableProcessors();
+        scanPool = new ForkJoinPool(parallelism);
+    }
+    
+    @PreDestroy
+    void stopScanPool() {
+        scanPool.shutdownNow();
+    }
+    
     /**
-     * Detect all potential duplicates in the contact database
+     * Detect all potential duplicates in the contact database.
+     * New and updated contacts are already checked by {@link IncrementalDuplicateDetector},
+     * so this full scan serves as an occasional repair job.
+     * Only contacts sharing a blocking key are compared, see {@link DuplicateBlockingKeys}.
+     * Candidate pairs are scored concurrently on the scan pool.
      */
     public List<DuplicateContact> detectAllDuplicates() {
-        List<UserState> allContacts = (List<UserState>) contactRepository.findAll();
+        return detectAllDuplicates(new DuplicateScanJob());
+    }
+    
+    /**
+     * Full scan reporting progress to the given job.
+     * Throws {@link CancellationException} if the job is cancelled before results are saved.
+     */
+    public List<DuplicateContact> detectAllDuplicates(DuplicateScanJob job) {
+        job.setPhase("loading");
+        // Only the compact fingerprints are kept; entities are streamed and detached page by page
+        List<ContactFingerprint> fingerprints;
+        try (Stream<UserState> contacts = contactRepository.streamAll()) {
+            fingerprints = contacts.map(fingerprintIndex::get).collect(Collectors.toList());
+        }
         List<DuplicateContact> duplicates = new ArrayList<>();
         
-        for (int i = 0; i < allContacts.size(); i++) {
-            for (int j = i + 1; j < allContacts.size(); j++) {
-                UserState contact1 = allContacts.get(i);
-                UserState contact2 = allContacts.get(j);
-                
-                DuplicateMatch match = findDuplicateMatch(contact1, contact2);
-                if (match.isMatch()) {
-                    // Check if this duplicate pair already exists
-                    Optional<DuplicateContact> existing = duplicateContactRepository
-                        .findExistingDuplicate(contact1.getId(), contact2.getId());
-                    
-                    if (existing.isEmpty()) {
-                        DuplicateContact duplicate = new DuplicateContact(
-                            contact1.getId(), 
-                            contact2.getId(), 
-                            match.getScore(), 
-                            match.getMatchType()
-                        );
-                        duplicates.add(duplicate);
-                    }
-                }
+        // Pairs are sorted, so they are visited in the same (i, j) order as a full scan
+        long[] candidatePairs = blockingKeys.candidatePairs(fingerprints);
+        job.setTotalPairs(candidatePairs.length);
+        job.setPhase("scoring");
+        List<ScoredPair> matches = scanPool.invoke(new ScanTask(job, fingerprints, candidatePairs, 0, candidatePairs.length));
+        if (job.isCancelRequested()) {
+            throw new CancellationException("Duplicate scan " + job.getId() + " cancelled");
+        }
+        
+        job.setPhase("saving");
+        
+        // Load every known pair once instead of querying per match
+        LongPairSet existingPairs = loadPairs(duplicateContactRepository.findAllPairs());
+        
+        for (ScoredPair scored : matches) {
+            ContactFingerprint contact1 = fingerprints.get((int) (scored.pair >>> 32));
+            ContactFingerprint contact2 = fingerprints.get((int) scored.pair);
+            DuplicateMatch match = scored.match;
+            
+            if (existingPairs.add(contact1.getId(), contact2.getId())) {
+                DuplicateContact duplicate = new DuplicateContact(
+                    contact1.getId(), 
+                    contact2.getId(), 
+                    match.getScore(), 
+                    match.getMatchType()
+                );
+                duplicates.add(duplicate);
             }
         }
         
-        // Save all new duplicates
+        // Save all new duplicates in JDBC batches
         if (!duplicates.isEmpty()) {
-            duplicateContactRepository.saveAll(duplicates);
+            statistics.recordInserted(duplicateContactRepository.insertIgnoringExisting(duplicates));
         }
         
         return duplicates;
@@ -65,288 +133,187 @@ public class DuplicateDetectionService {
             return new ArrayList<>();
         }
         
-        List<UserState> allContacts = (List<UserState>) contactRepository.findAll();
-        List<DuplicateContact> duplicates = new ArrayList<>();
-        
-        for (UserState contact : allContacts) {
-            if (!contact.getId().equals(contactId)) {
-                DuplicateMatch match = findDuplicateMatch(targetContact.get(), contact);
-                if (match.isMatch()) {
-                    // Check if this duplicate pair already exists
-                    Optional<DuplicateContact> existing = duplicateContactRepository
-                        .findExistingDuplicate(contactId, contact.getId());
-                    
-                    if (existing.isEmpty()) {
-                        DuplicateContact duplicate = new DuplicateContact(
-                            contactId, 
-                            contact.getId(), 
-                            match.getScore(), 
-                            match.getMatchType()
-                        );
-                        duplicates.add(duplicate);
-                    }
-                }
-            }
-        }
-        
-        // Save new duplicates
-        if (!duplicates.isEmpty()) {
-            duplicateContactRepository.saveAll(duplicates);
-        }
-        
-        return duplicates;
+        return findDuplicatesForContact(targetContact.get());
     }
     
     /**
-     * Core duplicate detection logic
+     * Check a loaded contact for potential duplicates.
+     * Candidates come from the in-memory match index (email, phone, name and LSH blocks), so the
+     * lookup costs one query for known pairs plus the insert; until the index has been built
+     * at startup, every contact is streamed instead. The index itself is only read: it follows
+     * contact changes through {@link ContactIndexMaintainer}.
+     * Returns the stored rows of the new pairs found, with their generated ids.
      */
-    private DuplicateMatch findDuplicateMatch(UserState contact1, UserState contact2) {
-        double maxScore = 0.0;
-        String matchType = "";
-        
-        // 1. Exact email match (highest priority)
-        if (hasValidEmail(contact1) && hasValidEmail(contact2)) {
-            if (contact1.getEmailAddress().equalsIgnoreCase(contact2.getEmailAddress())) {
-                return new DuplicateMatch(true, 1.0, "EMAIL_EXACT");
-            }
-        }
-        
-        // 2. Exact phone match
-        if (hasValidPhone(contact1) && hasValidPhone(contact2)) {
-            String phone1 = normalizePhone(contact1.getMobileNumber());
-            String phone2 = normalizePhone(contact2.getMobileNumber());
-            if (phone1.equals(phone2)) {
-                return new DuplicateMatch(true, 0.95, "PHONE_EXACT");
+    public List<DuplicateContact> findDuplicatesForContact(UserState targetContact) {
+        ContactFingerprint target = fingerprintIndex.get(targetContact);
+        
+        List<ContactFingerprint> candidates;
+        if (indexMaintainer.isReady()) {
+            candidates = fingerprintIndex.candidates(target);
+        } else {
+            try (Stream<UserState> contacts = contactRepository.streamAll()) {
+                candidates = contacts
+                    .filter(contact -> !contact.getId().equals(target.getId()))
+                    .map(fingerprintIndex::get)
+                    .collect(Collectors.toList());
             }
         }
         
-        // 3. Name similarity analysis
-        double nameScore = calculateNameSimilarity(contact1, contact2);
-        if (nameScore > maxScore) {
-            maxScore = nameScore;
-            matchType = "NAME_FUZZY";
-        }
+        List<DuplicateContact> duplicates = scoreCandidates(target, candidates);
         
-        // 4. Email domain + name similarity
-        if (hasValidEmail(contact1) && hasValidEmail(contact2)) {
-            String domain1 = extractDomain(contact1.getEmailAddress());
-            String domain2 = extractDomain(contact2.getEmailAddress());
-            if (domain1.equals(domain2)) {
-                double emailNameScore = nameScore * 0.8; // Boost if same domain
-                if (emailNameScore > maxScore) {
-                    maxScore = emailNameScore;
-                    matchType = "EMAIL_DOMAIN_NAME";
-                }
-            }
+        // Save new duplicates; pairs stored meanwhile by the incremental detector are skipped
+        if (duplicates.isEmpty()) {
+            return duplicates;
         }
-        
-        // 5. Phone similarity (partial matches)
-        if (hasValidPhone(contact1) && hasValidPhone(contact2)) {
-            double phoneScore = calculatePhoneSimilarity(contact1.getMobileNumber(), contact2.getMobileNumber());
-            if (phoneScore > maxScore) {
-                maxScore = phoneScore;
-                matchType = "PHONE_FUZZY";
+        statistics.recordInserted(duplicateContactRepository.insertIgnoringExisting(duplicates));
+        
+        // The JDBC insert returns no keys: read the stored rows back, whichever writer stored them
+        Long contactId = target.getId();
+        List<Long> otherIds = duplicates.stream()
+            .map(duplicate -> duplicate.getContact1Id().equals(contactId) ? duplicate.getContact2Id() : duplicate.getContact1Id())
+            .collect(Collectors.toList());
+        Map<Long, DuplicateContact> stored = new HashMap<>();
+        for (int from = 0; from < otherIds.size(); from += PAIR_LOOKUP_BATCH_SIZE) {
+            List<Long> batch = otherIds.subList(from, Math.min(otherIds.size(), from + PAIR_LOOKUP_BATCH_SIZE));
+            for (DuplicateContact duplicate : duplicateContactRepository.findPairsForContactWith(contactId, batch)) {
+                stored.put(duplicate.getContact1Id().equals(contactId) ? duplicate.getContact2Id() : duplicate.getContact1Id(), duplicate);
             }
         }
-        
-        // Consider it a match if score is above threshold
-        boolean isMatch = maxScore >= 0.75;
-        return new DuplicateMatch(isMatch, maxScore, matchType);
+        return otherIds.stream().map(stored::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
     
     /**
-     * Calculate name similarity using multiple algorithms
+     * Check one changed contact against the in-memory match index and store any new pairs.
+     * Reads no contacts from the database; only the contact's known pairs are queried.
      */
-    private double calculateNameSimilarity(UserState contact1, UserState contact2) {
-        String fullName1 = buildFullName(contact1).toLowerCase().trim();
-        String fullName2 = buildFullName(contact2).toLowerCase().trim();
-        
-        if (fullName1.isEmpty() || fullName2.isEmpty()) {
-            return 0.0;
-        }
-        
-        // Exact match
-        if (fullName1.equals(fullName2)) {
-            return 1.0;
+    public List<DuplicateContact> detectDuplicatesIncrementally(Long contactId) {
+        ContactFingerprint target = fingerprintIndex.get(contactId);
+        if (target == null) {
+            return new ArrayList<>();
         }
-        
-        // Levenshtein distance
-        double levenshteinScore = 1.0 - (double) levenshteinDistance(fullName1, fullName2) / 
-                                 Math.max(fullName1.length(), fullName2.length());
-        
-        // Jaccard similarity (word-based)
-        double jaccardScore = calculateJaccardSimilarity(fullName1, fullName2);
-        
-        // Name component analysis
-        double componentScore = calculateNameComponentSimilarity(contact1, contact2);
-        
-        // Return the highest score
-        return Math.max(Math.max(levenshteinScore, jaccardScore), componentScore);
+        return detectDuplicatesIncrementally(target);
     }
     
     /**
-     * Calculate similarity between individual name components
+     * Check a fingerprint against the in-memory match index and store any new pairs.
+     * The index is only read, so the fingerprint may come from a row read outside the index.
      */
-    private double calculateNameComponentSimilarity(UserState contact1, UserState contact2) {
-        double firstNameScore = 0.0;
-        double lastNameScore = 0.0;
+    public List<DuplicateContact> detectDuplicatesIncrementally(ContactFingerprint target) {
+        List<DuplicateContact> duplicates = scoreCandidates(target, fingerprintIndex.candidates(target));
         
-        // First name comparison
-        if (hasValidName(contact1.getFirstName()) && hasValidName(contact2.getFirstName())) {
-            String fn1 = contact1.getFirstName().toLowerCase().trim();
-            String fn2 = contact2.getFirstName().toLowerCase().trim();
-            if (fn1.equals(fn2)) {
-                firstNameScore = 1.0;
-            } else {
-                firstNameScore = 1.0 - (double) levenshteinDistance(fn1, fn2) / Math.max(fn1.length(), fn2.length());
-            }
-        }
-        
-        // Last name comparison
-        if (hasValidName(contact1.getLastName()) && hasValidName(contact2.getLastName())) {
-            String ln1 = contact1.getLastName().toLowerCase().trim();
-            String ln2 = contact2.getLastName().toLowerCase().trim();
-            if (ln1.equals(ln2)) {
-                lastNameScore = 1.0;
-            } else {
-                lastNameScore = 1.0 - (double) levenshteinDistance(ln1, ln2) / Math.max(ln1.length(), ln2.length());
-            }
-        }
-        
-        // If both first and last names are similar, it's a strong match
-        if (firstNameScore > 0.8 && lastNameScore > 0.8) {
-            return (firstNameScore + lastNameScore) / 2;
+        if (!duplicates.isEmpty()) {
+            statistics.recordInserted(duplicateContactRepository.insertIgnoringExisting(duplicates));
         }
         
-        // If only one name component matches well, lower the score
-        return Math.max(firstNameScore, lastNameScore) * 0.7;
+        return duplicates;
     }
     
     /**
-     * Calculate phone number similarity
+     * Score candidates against a target and build the pairs that are not stored yet
      */
-    private double calculatePhoneSimilarity(String phone1, String phone2) {
-        String normalized1 = normalizePhone(phone1);
-        String normalized2 = normalizePhone(phone2);
-        
-        if (normalized1.equals(normalized2)) {
-            return 1.0;
-        }
-        
-        // Check if one is a substring of the other (different formats)
-        if (normalized1.contains(normalized2) || normalized2.contains(normalized1)) {
-            return 0.85;
-        }
-        
-        // Check last 7 digits (local number similarity)
-        if (normalized1.length() >= 7 && normalized2.length() >= 7) {
-            String last7_1 = normalized1.substring(normalized1.length() - 7);
-            String last7_2 = normalized2.substring(normalized2.length() - 7);
-            if (last7_1.equals(last7_2)) {
-                return 0.8;
+    private List<DuplicateContact> scoreCandidates(ContactFingerprint target, List<ContactFingerprint> candidates) {
+        Long contactId = target.getId();
+        List<DuplicateContact> duplicates = new ArrayList<>();
+        LongPairSet existingPairs = loadPairs(duplicateContactRepository.findPairsForContact(contactId));
+        
+        for (ContactFingerprint candidate : candidates) {
+            DuplicateMatch match = findDuplicateMatch(target, candidate);
+            if (match.isMatch() && existingPairs.add(contactId, candidate.getId())) {
+                DuplicateContact duplicate = new DuplicateContact(
+                    contactId, 
+                    candidate.getId(), 
+                    match.getScore(), 
+                    match.getMatchType()
+                );
+                duplicates.add(duplicate);
             }
         }
         
-        return 0.0;
+        return duplicates;
     }
     
     /**
-     * Calculate Jaccard similarity for word-based comparison
+     * Core duplicate detection logic, see {@link MatchRulePipeline}
      */
-    private double calculateJaccardSimilarity(String str1, String str2) {
-        Set<String> words1 = new HashSet<>(Arrays.asList(str1.split("\\s+")));
-        Set<String> words2 = new HashSet<>(Arrays.asList(str2.split("\\s+")));
-        
-        Set<String> intersection = new HashSet<>(words1);
-        intersection.retainAll(words2);
-        
-        Set<String> union = new HashSet<>(words1);
-        union.addAll(words2);
-        
-        return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
+    private DuplicateMatch findDuplicateMatch(ContactFingerprint contact1, ContactFingerprint contact2) {
+        return matchRules.evaluate(contact1, contact2);
+    }
+    
+    // Helper methods
+    private LongPairSet loadPairs(List<Object[]> rows) {
+        LongPairSet pairs = new LongPairSet(rows.size());
+        for (Object[] row : rows) {
+            pairs.add((Long) row[0], (Long) row[1]);
+        }
+        return pairs;
     }
     
     /**
-     * Calculate Levenshtein distance between two strings
+     * Fork-join task scoring a range of candidate pairs.
+     * Each task keeps its own result list and the halves are concatenated left-to-right,
+     * so the output order does not depend on the number of threads.
      */
-    private int levenshteinDistance(String str1, String str2) {
-        int[][] dp = new int[str1.length() + 1][str2.length() + 1];
-        
-        for (int i = 0; i <= str1.length(); i++) {
-            dp[i][0] = i;
-        }
-        for (int j = 0; j <= str2.length(); j++) {
-            dp[0][j] = j;
+    private class ScanTask extends RecursiveTask<List<ScoredPair>> {
+        private static final int SEQUENTIAL_THRESHOLD = 4096;
+        
+        private final DuplicateScanJob job;
+        private final List<ContactFingerprint> contacts;
+        private final long[] pairs;
+        private final int from;
+        private final int to;
+        
+        ScanTask(DuplicateScanJob job, List<ContactFingerprint> contacts, long[] pairs, int from, int to) {
+            this.job = job;
+            this.contacts = contacts;
+            this.pairs = pairs;
+            this.from = from;
+            this.to = to;
         }
         
-        for (int i = 1; i <= str1.length(); i++) {
-            for (int j = 1; j <= str2.length(); j++) {
-                if (str1.charAt(i - 1) == str2.charAt(j - 1)) {
-                    dp[i][j] = dp[i - 1][j - 1];
-                } else {
-                    dp[i][j] = 1 + Math.min(Math.min(dp[i - 1][j], dp[i][j - 1]), dp[i - 1][j - 1]);
+        @Override
+        protected List<ScoredPair> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                List<ScoredPair> matches = new ArrayList<>();
+                if (job.isCancelRequested()) {
+                    return matches;
                 }
+                for (int k = from; k < to; k++) {
+                    long pair = pairs[k];
+                    DuplicateMatch match = findDuplicateMatch(
+                        contacts.get((int) (pair >>> 32)), contacts.get((int) pair));
+                    if (match.isMatch()) {
+                        matches.add(new ScoredPair(pair, match));
+                    }
+                }
+                job.addPairsCompared(to - from);
+                job.addMatches(matches.size());
+                return matches;
             }
+            
+            int mid = (from + to) >>> 1;
+            ScanTask left = new ScanTask(job, contacts, pairs, from, mid);
+            ScanTask right = new ScanTask(job, contacts, pairs, mid, to);
+            right.fork();
+            List<ScoredPair> matches = left.compute();
+            List<ScoredPair> rightMatches = right.join();
+            if (matches.isEmpty()) {
+                return rightMatches;
+            }
+            matches.addAll(rightMatches);
+            return matches;
         }
-        
-        return dp[str1.length()][str2.length()];
-    }
-    
-    // Helper methods
-    private boolean hasValidEmail(UserState contact) {
-        return contact.getEmailAddress() != null && !contact.getEmailAddress().trim().isEmpty();
-    }
-    
-    private boolean hasValidPhone(UserState contact) {
-        return contact.getMobileNumber() != null && !contact.getMobileNumber().trim().isEmpty();
-    }
-    
-    private boolean hasValidName(String name) {
-        return name != null && !name.trim().isEmpty();
-    }
-    
-    private String buildFullName(UserState contact) {
-        StringBuilder fullName = new StringBuilder();
-        if (hasValidName(contact.getFirstName())) {
-            fullName.append(contact.getFirstName().trim());
-        }
-        if (hasValidName(contact.getMiddleName())) {
-            if (fullName.length() > 0) fullName.append(" ");
-            fullName.append(contact.getMiddleName().trim());
-        }
-        if (hasValidName(contact.getLastName())) {
-            if (fullName.length() > 0) fullName.append(" ");
-            fullName.append(contact.getLastName().trim());
-        }
-        return fullName.toString();
-    }
-    
-    private String normalizePhone(String phone) {
-        if (phone == null) return "";
-        return phone.replaceAll("[^0-9]", "");
-    }
-    
-    private String extractDomain(String email) {
-        if (email == null || !email.contains("@")) return "";
-        return email.substring(email.lastIndexOf("@") + 1).toLowerCase();
     }
     
     /**
-     * Inner class to represent a duplicate match result
+     * A packed candidate pair together with its match result
      */
-    private static class DuplicateMatch {
-        private final boolean match;
-        private final double score;
-        private final String matchType;
+    private static class ScoredPair {
+        private final long pair;
+        private final DuplicateMatch match;
         
-        public DuplicateMatch(boolean match, double score, String matchType) {
+        ScoredPair(long pair, DuplicateMatch match) {
+            this.pair = pair;
             this.match = match;
-            this.score = score;
-            this.matchType = matchType;
         }
-        
-        public boolean isMatch() { return match; }
-        public double getScore() { return score; }
-        public String getMatchType() { return matchType; }
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package org.common.service;
+
+/**
+ * Outcome of comparing two contacts: whether they match, the score and the rule that produced it
+ */
+public class DuplicateMatch {
+
+    private final boolean match;
+    private final double score;
+    private final String matchType;
+
+    public DuplicateMatch(boolean match, double score, String matchType) {
+        this.match = match;
+        this.score = score;
+        this.matchType = matchType;
+    }
+
+    public boolean isMatch() { return match; }
+    public double getScore() { return score; }
+    public String getMatchType() { return matchType; }
+}
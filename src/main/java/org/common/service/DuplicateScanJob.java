@@ -0,0 +1,134 @@
+package org.common.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * State and progress of one full duplicate scan.
+ * Counters are updated by the scan workers and read concurrently by the progress endpoints.
+ */
+public class DuplicateScanJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant createdAt = Instant.now();
+    private final LongAdder pairsCompared = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String phase = "queued";
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile long totalPairs = -1;
+    private volatile boolean cancelRequested;
+    private volatile int duplicatesFound;
+    private volatile Map<String, Long> matchTypes;
+    private volatile String error;
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    void setTotalPairs(long totalPairs) {
+        this.totalPairs = totalPairs;
+    }
+
+    void addPairsCompared(long count) {
+        pairsCompared.add(count);
+    }
+
+    void addMatches(long count) {
+        matches.add(count);
+    }
+
+    void complete(int duplicatesFound, Map<String, Long> matchTypes) {
+        this.duplicatesFound = duplicatesFound;
+        this.matchTypes = matchTypes;
+        finish(Status.COMPLETED, "completed");
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finish(Status.FAILED, "failed");
+    }
+
+    void cancelled() {
+        finish(Status.CANCELLED, "cancelled");
+    }
+
+    private void finish(Status status, String phase) {
+        this.finishedAt = Instant.now();
+        this.phase = phase;
+        this.status = status;
+    }
+
+    /**
+     * Snapshot of the job for API responses
+     */
+    public Map<String, Object> toMap() {
+        long compared = pairsCompared.sum();
+        long total = totalPairs;
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("jobId", id);
+        data.put("status", status.name());
+        data.put("phase", phase);
+        data.put("createdAt", createdAt.toString());
+        data.put("pairsCompared", compared);
+        data.put("matches", matches.sum());
+        if (total >= 0) {
+            data.put("totalPairs", total);
+            data.put("percentComplete", total == 0 ? 100 : Math.min(100, compared * 100 / total));
+        }
+        if (startedAt != null) {
+            data.put("startedAt", startedAt.toString());
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long elapsedMillis = Duration.between(startedAt, end).toMillis();
+            data.put("elapsedSeconds", elapsedMillis / 1000);
+            if (!isFinished() && total > 0 && compared > 0) {
+                data.put("etaSeconds", elapsedMillis * (total - compared) / compared / 1000);
+            }
+        }
+        if (finishedAt != null) {
+            data.put("finishedAt", finishedAt.toString());
+        }
+        if (status == Status.COMPLETED) {
+            data.put("duplicatesFound", duplicatesFound);
+            data.put("matchTypes", matchTypes);
+        }
+        if (error != null) {
+            data.put("error", error);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,152 @@
+package org.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Runs full duplicate scans as background jobs.
+ *
+ * Scans execute one at a time on a dedicated thread; submitting while a scan is queued
+ * or running returns the job already in flight instead of starting another one.
+ * The most recent jobs are kept so their progress and results can still be polled.
+ */
+@Service
+public class DuplicateScanJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateScanJobService.class);
+    private static final int RETAINED_JOBS = 20;
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000;
+
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+
+    private final AtomicReference<DuplicateScanJob> activeJob = new AtomicReference<>();
+    private final Map<String, DuplicateScanJob> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<String, DuplicateScanJob>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, DuplicateScanJob> eldest) {
+                    return size() > RETAINED_JOBS && eldest.getValue().isFinished();
+                }
+            });
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "duplicate-scan");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ScheduledExecutorService progressTicker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "duplicate-scan-progress");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Start a scan, or return the scan that is already queued or running
+     */
+    public DuplicateScanJob submit() {
+        while (true) {
+            DuplicateScanJob current = activeJob.get();
+            if (current != null && !current.isFinished()) {
+                return current;
+            }
+            DuplicateScanJob job = new DuplicateScanJob();
+            if (activeJob.compareAndSet(current, job)) {
+                jobs.put(job.getId(), job);
+                executor.execute(() -> run(job));
+                return job;
+            }
+        }
+    }
+
+    /**
+     * Whether a full scan is queued or running
+     */
+    public boolean isScanActive() {
+        DuplicateScanJob current = activeJob.get();
+        return current != null && !current.isFinished();
+    }
+
+    public Optional<DuplicateScanJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Ask a job to stop; workers observe the flag between chunks of pairs
+     */
+    public Optional<DuplicateScanJob> cancel(String jobId) {
+        Optional<DuplicateScanJob> job = find(jobId);
+        job.ifPresent(DuplicateScanJob::requestCancel);
+        return job;
+    }
+
+    /**
+     * Server-sent events carrying the job's progress once per second, completed when the job finishes
+     */
+    public SseEmitter streamProgress(DuplicateScanJob job) throws IOException {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.send(SseEmitter.event().name("progress").data(job.toMap()));
+        if (job.isFinished()) {
+            emitter.complete();
+            return emitter;
+        }
+
+        AtomicReference<ScheduledFuture<?>> ticker = new AtomicReference<>();
+        ticker.set(progressTicker.scheduleAtFixedRate(() -> {
+            try {
+                boolean finished = job.isFinished();
+                emitter.send(SseEmitter.event().name("progress").data(job.toMap()));
+                if (finished) {
+                    emitter.complete();
+                    ticker.get().cancel(false);
+                }
+            } catch (Exception e) {
+                // Client went away
+                emitter.completeWithError(e);
+                ticker.get().cancel(false);
+            }
+        }, PROGRESS_INTERVAL_MILLIS, PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS));
+        emitter.onCompletion(() -> ticker.get().cancel(false));
+        emitter.onTimeout(() -> ticker.get().cancel(false));
+        return emitter;
+    }
+
+    private void run(DuplicateScanJob job) {
+        if (job.isCancelRequested()) {
+            job.cancelled();
+            return;
+        }
+        job.markRunning();
+        try {
+            List<DuplicateContact> duplicates = duplicateDetectionService.detectAllDuplicates(job);
+            Map<String, Long> matchTypeCounts = duplicates.stream()
+                .collect(Collectors.groupingBy(DuplicateContact::getMatchType, Collectors.counting()));
+            job.complete(duplicates.size(), matchTypeCounts);
+        } catch (CancellationException e) {
+            job.cancelled();
+        } catch (Exception e) {
+            log.error("Duplicate scan {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        DuplicateScanJob current = activeJob.get();
+        if (current != null) {
+            current.requestCancel();
+        }
+        executor.shutdownNow();
+        progressTicker.shutdownNow();
+    }
+}
@@ -0,0 +1,109 @@
+package org.common.service;
+
+import org.common.repository.DuplicateContactRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running counts of stored duplicate pairs: by status, by match type (pending only)
+ * and the number of pending high-confidence pairs.
+ *
+ * The counters are loaded with grouped aggregate queries on startup and then adjusted
+ * as pairs are inserted, merged or ignored, so reading them never touches the database.
+ */
+@Component
+public class DuplicateStatistics {
+
+    public static final double HIGH_CONFIDENCE_THRESHOLD = 0.9;
+
+    private static final String PENDING = "PENDING";
+
+    @Autowired
+    private DuplicateContactRepository duplicateContactRepository;
+
+    private final Map<String, Long> statusCounts = new HashMap<>();
+    private final Map<String, Long> pendingMatchTypeCounts = new HashMap<>();
+    private long totalDuplicates;
+    private long highConfidenceDuplicates;
+    private boolean loaded;
+
+    /**
+     * Reload every counter from the duplicate_contacts table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        statusCounts.clear();
+        pendingMatchTypeCounts.clear();
+        totalDuplicates = 0;
+        for (Object[] row : duplicateContactRepository.countByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            statusCounts.put((String) row[0], count);
+            totalDuplicates += count;
+        }
+        for (Object[] row : duplicateContactRepository.countPendingByMatchType()) {
+            pendingMatchTypeCounts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        highConfidenceDuplicates = duplicateContactRepository.countHighConfidenceDuplicates(HIGH_CONFIDENCE_THRESHOLD);
+        loaded = true;
+    }
+
+    /**
+     * Count newly stored pairs
+     */
+    public synchronized void recordInserted(Collection<DuplicateContact> duplicates) {
+        if (!loaded) {
+            return;
+        }
+        for (DuplicateContact duplicate : duplicates) {
+            totalDuplicates++;
+            adjust(duplicate, duplicate.getStatus(), 1);
+        }
+    }
+
+    /**
+     * Move a stored pair from its previous status to its current one
+     */
+    public synchronized void recordStatusChange(DuplicateContact duplicate, String previousStatus) {
+        if (!loaded || previousStatus.equals(duplicate.getStatus())) {
+            return;
+        }
+        adjust(duplicate, previousStatus, -1);
+        adjust(duplicate, duplicate.getStatus(), 1);
+    }
+
+    /**
+     * Current counters, loaded from aggregate queries first if they are not available yet
+     */
+    public synchronized Map<String, Object> snapshot() {
+        if (!loaded) {
+            reload();
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalDuplicates", totalDuplicates);
+        stats.put("statusBreakdown", new HashMap<>(statusCounts));
+        stats.put("matchTypeBreakdown", new HashMap<>(pendingMatchTypeCounts));
+        stats.put("highConfidenceDuplicates", highConfidenceDuplicates);
+        return stats;
+    }
+
+    private void adjust(DuplicateContact duplicate, String status, long delta) {
+        increment(statusCounts, status, delta);
+        if (PENDING.equals(status)) {
+            increment(pendingMatchTypeCounts, duplicate.getMatchType(), delta);
+            if (duplicate.getSimilarityScore() >= HIGH_CONFIDENCE_THRESHOLD) {
+                highConfidenceDuplicates += delta;
+            }
+        }
+    }
+
+    private static void increment(Map<String, Long> counts, String key, long delta) {
+        // Drop keys that reach zero, matching the grouped query output
+        counts.merge(key, delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+}
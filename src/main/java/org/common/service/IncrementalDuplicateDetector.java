@@ -0,0 +1,64 @@
+package org.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Background consumer of contact changes.
+ * Each created or updated contact is checked against the match index on a single worker thread;
+ * repeated changes to the same contact are coalesced while a check is still queued.
+ */
+@Component
+public class IncrementalDuplicateDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalDuplicateDetector.class);
+
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Value("${duplicate.incremental.enabled:true}")
+    private boolean enabled;
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "duplicate-incremental");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener
+    public void onContactChanged(ContactChangedEvent event) {
+        if (!enabled || event.isDeleted()) {
+            return;
+        }
+        Long contactId = event.getContactId();
+        if (queued.add(contactId)) {
+            executor.execute(() -> check(contactId));
+        }
+    }
+
+    private void check(Long contactId) {
+        queued.remove(contactId);
+        try {
+            duplicateDetectionService.detectDuplicatesIncrementally(contactId);
+        } catch (Exception e) {
+            log.warn("Incremental duplicate check failed for contact {}", contactId, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,50 @@
+package org.common.service;
+
+/**
+ * A pair of contacts being evaluated by the match rules.
+ * The name similarity is shared by several rules, so it is computed at most once per pair.
+ */
+public class MatchCandidate {
+
+    private final ContactFingerprint first;
+    private final ContactFingerprint second;
+    private final double nameScoreFloor;
+    private double nameScore = -1;
+
+    MatchCandidate(ContactFingerprint first, ContactFingerprint second, double nameScoreFloor) {
+        this.first = first;
+        this.second = second;
+        this.nameScoreFloor = nameScoreFloor;
+    }
+
+    public ContactFingerprint getFirst() {
+        return first;
+    }
+
+    public ContactFingerprint getSecond() {
+        return second;
+    }
+
+    /**
+     * Name similarity of the pair; exact at or above the pipeline's name score floor,
+     * some lower value otherwise
+     */
+    public double nameScore() {
+        if (nameScore < 0) {
+            nameScore = ContactSimilarity.nameSimilarity(first, second, nameScoreFloor);
+        }
+        return nameScore;
+    }
+
+    /**
+     * Upper bound of {@link #nameScore()}; before the score is computed, a bound from the name
+     * and word lengths
+     */
+    public double nameScoreBound() {
+        if (nameScore >= 0) {
+            // Below the floor the computed score is only a lower bound
+            return Math.max(nameScore, nameScoreFloor);
+        }
+        return ContactSimilarity.nameSimilarityBound(first, second);
+    }
+}
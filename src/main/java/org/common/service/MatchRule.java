@@ -0,0 +1,41 @@
+package org.common.service;
+
+/**
+ * One way two contacts can be recognised as duplicates.
+ *
+ * Rules are evaluated by {@link MatchRulePipeline}: exact rules first, in configured order,
+ * then the remaining rules cheapest first, skipping any rule whose upper bound cannot beat
+ * the best score found so far. Additional rules can be contributed as Spring beans and
+ * enabled by listing their match type in {@code duplicate.match.rules}.
+ * Candidate pairs still come from {@link DuplicateBlockingKeys}, so a rule only sees pairs sharing a blocking key.
+ */
+public interface MatchRule {
+
+    /**
+     * Match type stored with pairs found by this rule, also its name in the configuration
+     */
+    String getMatchType();
+
+    /**
+     * Relative evaluation cost; cheaper rules run first
+     */
+    int getCost();
+
+    /**
+     * Exact rules decide the outcome as soon as they score, without consulting the other rules
+     */
+    default boolean isExact() {
+        return false;
+    }
+
+    /**
+     * Highest score this rule could give the pair, 0 when it does not apply.
+     * Must be much cheaper than {@link #score}.
+     */
+    double upperBound(MatchCandidate candidate);
+
+    /**
+     * Score of the pair under this rule, 0 when it does not apply
+     */
+    double score(MatchCandidate candidate);
+}
@@ -0,0 +1,171 @@
+package org.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * Decides whether two contacts are duplicates by running the configured {@link MatchRule}s.
+ *
+ * Exact rules are tried first, in configured order, and the first one that scores decides the outcome.
+ * The other rules run cheapest first: a rule is skipped when its upper bound cannot beat the best
+ * score so far, and evaluation stops once no remaining rule could reach the threshold.
+ * When two rules give the same score, the one listed first in {@code duplicate.match.rules} wins.
+ */
+@Component
+public class MatchRulePipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchRulePipeline.class);
+
+    /**
+     * Minimum score for a pair to be reported as a duplicate
+     */
+    @Value("${duplicate.match.threshold:0.75}")
+    private double threshold;
+
+    /**
+     * Enabled rules in priority order
+     */
+    @Value("${duplicate.match.rules:EMAIL_EXACT,PHONE_EXACT,NAME_FUZZY,EMAIL_DOMAIN_NAME,PHONE_FUZZY}")
+    private String[] ruleNames;
+
+    @Value("${duplicate.match.email-exact.score:1.0}")
+    private double emailExactScore;
+
+    @Value("${duplicate.match.phone-exact.score:0.95}")
+    private double phoneExactScore;
+
+    @Value("${duplicate.match.name-fuzzy.weight:1.0}")
+    private double nameFuzzyWeight;
+
+    @Value("${duplicate.match.email-domain-name.weight:0.8}")
+    private double emailDomainNameWeight;
+
+    @Value("${duplicate.match.phone-fuzzy.containment-score:0.85}")
+    private double phoneContainmentScore;
+
+    @Value("${duplicate.match.phone-fuzzy.local-number-score:0.8}")
+    private double phoneLocalNumberScore;
+
+    /**
+     * Rules contributed by the application in addition to the built-in ones
+     */
+    @Autowired(required = false)
+    private List<MatchRule> customRules = new ArrayList<>();
+
+    private MatchRule[] exactRules;
+    private MatchRule[] rankedRules;
+    private int[] rankedPriorities;
+    private double nameScoreFloor;
+
+    @PostConstruct
+    void compile() {
+        Map<String, MatchRule> available = new LinkedHashMap<>();
+        available.put(BuiltInMatchRules.EMAIL_EXACT, BuiltInMatchRules.emailExact(emailExactScore));
+        available.put(BuiltInMatchRules.PHONE_EXACT, BuiltInMatchRules.phoneExact(phoneExactScore));
+        available.put(BuiltInMatchRules.NAME_FUZZY, BuiltInMatchRules.nameFuzzy(nameFuzzyWeight));
+        available.put(BuiltInMatchRules.EMAIL_DOMAIN_NAME, BuiltInMatchRules.emailDomainName(emailDomainNameWeight));
+        available.put(BuiltInMatchRules.PHONE_FUZZY, BuiltInMatchRules.phoneFuzzy(phoneContainmentScore, phoneLocalNumberScore));
+        for (MatchRule rule : customRules) {
+            available.put(rule.getMatchType(), rule);
+        }
+
+        List<MatchRule> exact = new ArrayList<>();
+        List<MatchRule> ranked = new ArrayList<>();
+        Map<MatchRule, Integer> priorities = new HashMap<>();
+        double maxNameWeight = 0.0;
+        for (String name : ruleNames) {
+            String type = name.trim();
+            MatchRule rule = available.get(type);
+            if (rule == null) {
+                throw new IllegalStateException("Unknown duplicate match rule: " + type);
+            }
+            if (priorities.containsKey(rule)) {
+                continue;
+            }
+            priorities.put(rule, priorities.size());
+            (rule.isExact() ? exact : ranked).add(rule);
+            if (type.equals(BuiltInMatchRules.NAME_FUZZY)) {
+                maxNameWeight = Math.max(maxNameWeight, nameFuzzyWeight);
+            } else if (type.equals(BuiltInMatchRules.EMAIL_DOMAIN_NAME)) {
+                maxNameWeight = Math.max(maxNameWeight, emailDomainNameWeight);
+            }
+        }
+        ranked.sort(Comparator.comparingInt(MatchRule::getCost).thenComparing(priorities::get));
+
+        exactRules = exact.toArray(new MatchRule[0]);
+        rankedRules = ranked.toArray(new MatchRule[0]);
+        rankedPriorities = new int[rankedRules.length];
+        for (int i = 0; i < rankedRules.length; i++) {
+            rankedPriorities[i] = priorities.get(rankedRules[i]);
+        }
+
+        // Name scores only need to be exact where a weighted name rule could still reach the threshold
+        nameScoreFloor = maxNameWeight > 0 ? Math.min(1.0, threshold / maxNameWeight) : threshold;
+
+        log.info("Duplicate match rules: exact {}, ranked {}, threshold {}",
+            Arrays.stream(exactRules).map(MatchRule::getMatchType).toList(),
+            Arrays.stream(rankedRules).map(MatchRule::getMatchType).toList(),
+            threshold);
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Evaluate the rules for a pair of contacts
+     */
+    public DuplicateMatch evaluate(ContactFingerprint contact1, ContactFingerprint contact2) {
+        MatchCandidate candidate = new MatchCandidate(contact1, contact2, nameScoreFloor);
+
+        for (MatchRule rule : exactRules) {
+            double score = rule.score(candidate);
+            if (score > 0) {
+                return new DuplicateMatch(score >= threshold, score, rule.getMatchType());
+            }
+        }
+
+        double maxScore = 0.0;
+        String matchType = "";
+        int matchPriority = Integer.MAX_VALUE;
+        for (int i = 0; i < rankedRules.length; i++) {
+            if (maxScore < threshold && remainingBound(candidate, i) < threshold) {
+                break;
+            }
+            MatchRule rule = rankedRules[i];
+            int priority = rankedPriorities[i];
+            if (!beats(rule.upperBound(candidate), priority, maxScore, matchPriority)) {
+                continue;
+            }
+            double score = rule.score(candidate);
+            if (beats(score, priority, maxScore, matchPriority)) {
+                maxScore = score;
+                matchType = rule.getMatchType();
+                matchPriority = priority;
+            }
+        }
+
+        return new DuplicateMatch(maxScore >= threshold, maxScore, matchType);
+    }
+
+    /**
+     * Highest score any rule from index onwards could give the pair
+     */
+    private double remainingBound(MatchCandidate candidate, int from) {
+        double bound = 0.0;
+        for (int i = from; i < rankedRules.length; i++) {
+            bound = Math.max(bound, rankedRules[i].upperBound(candidate));
+        }
+        return bound;
+    }
+
+    private static boolean beats(double score, int priority, double maxScore, int matchPriority) {
+        return score > maxScore || (score > 0 && score == maxScore && priority < matchPriority);
+    }
+}
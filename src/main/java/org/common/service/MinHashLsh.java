@@ -0,0 +1,89 @@
+package org.common.service;
+
+import java.util.Arrays;
+
+/**
+ * MinHash signatures over character shingles, split into LSH bands.
+ *
+ * Two strings share at least one band key with probability 1 - (1 - s^rows)^bands,
+ * where s is the Jaccard similarity of their shingle sets. More bands (or fewer rows per band)
+ * raise recall for moderately similar names at the cost of larger candidate sets.
+ */
+public final class MinHashLsh {
+
+    private static final int SHINGLE_SIZE = 3;
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    public MinHashLsh(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("LSH bands and rows must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int i = 0; i < seeds.length; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            seeds[i] = seed;
+        }
+    }
+
+    public int getBands() {
+        return bands;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * One hash per band; equal values mean the two strings agree on every row of that band.
+     * Returns an empty array for an empty string.
+     */
+    public long[] bandHashes(String text) {
+        if (text.isEmpty()) {
+            return new long[0];
+        }
+
+        // Pad so that the first and last characters start / end their own shingles
+        String padded = " " + text + " ";
+        long[] minima = new long[seeds.length];
+        Arrays.fill(minima, Long.MAX_VALUE);
+        int shingles = Math.max(1, padded.length() - SHINGLE_SIZE + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = 0;
+            int end = Math.min(padded.length(), start + SHINGLE_SIZE);
+            for (int i = start; i < end; i++) {
+                shingle = shingle * 0x10001L + padded.charAt(i);
+            }
+            for (int h = 0; h < seeds.length; h++) {
+                long value = mix(shingle ^ seeds[h]);
+                if (value < minima[h]) {
+                    minima[h] = value;
+                }
+            }
+        }
+
+        long[] bandHashes = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long hash = band;
+            for (int row = 0; row < rows; row++) {
+                hash = mix(hash * 31 + minima[band * rows + row]);
+            }
+            bandHashes[band] = hash;
+        }
+        return bandHashes;
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
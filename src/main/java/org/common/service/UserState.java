@@ -3,11 +3,12 @@ package org.common.service;
 import jakarta.persistence.*;
 import org.hibernate.annotations.GenericGenerator;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.UUID;
 
 @Entity
-@Table(name = "contacts")
+@Table(name = "contacts", indexes = @Index(name = "idx_contacts_last_modified", columnList = "last_modified"))
 public class UserState {
 
 
@@ -29,6 +30,15 @@ public class UserState {
 
     private ArrayList<String> categories;
 
+    @Column(name = "last_modified")
+    private LocalDateTime lastModified;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = LocalDateTime.now();
+    }
+
     public Long getId() {
         return id;
     }
@@ -92,4 +102,11 @@ public class UserState {
     public void setCategories(ArrayList<String> categories) {
         this.categories = categories;
     }
+
+    /**
+     * Time of the last insert or update, null for rows written before the column existed
+     */
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
 }
@@ -0,0 +1,104 @@
+package org.common.service;
+
+import org.common.repository.ContactRepository;
+import org.common.repository.DedupWatermarkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Scheduled duplicate check of the contacts modified since the previous run.
+ *
+ * Changed contacts are read in keyset pages using their last-modified timestamp and scored against
+ * the match index, so a run costs time proportional to the churn rather than the table size. The
+ * index is only read: it changes through {@link ContactIndexMaintainer} alone, so rows read here can
+ * never overwrite newer entries. Contacts deleted since their page was read are skipped. The window
+ * end is persisted as the new watermark once the run completes. The first run only records a
+ * watermark; older contacts are covered by a full scan, and no run starts while one is active.
+ */
+@Component
+public class WatermarkDeduplicationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(WatermarkDeduplicationJob.class);
+    private static final String WATERMARK_NAME = "contacts";
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private DedupWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private ContactFingerprintIndex fingerprintIndex;
+
+    @Autowired
+    private ContactIndexMaintainer indexMaintainer;
+
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Autowired
+    private DuplicateScanJobService scanJobService;
+
+    @Value("${contacts.stream.page-size:1000}")
+    private int pageSize;
+
+    /**
+     * Changes are re-read this far behind the watermark, to cover transactions that committed late
+     */
+    @Value("${duplicate.watermark.overlap-seconds:60}")
+    private long overlapSeconds;
+
+    @Scheduled(cron = "${duplicate.watermark.cron:0 0 2 * * *}")
+    public void run() {
+        if (!indexMaintainer.isReady()) {
+            log.info("Skipping watermark deduplication, contact indexes are still loading");
+            return;
+        }
+        if (scanJobService.isScanActive()) {
+            log.info("Skipping watermark deduplication, a full duplicate scan is in progress");
+            return;
+        }
+
+        DedupWatermark watermark = watermarkRepository.findById(WATERMARK_NAME)
+            .orElseGet(() -> new DedupWatermark(WATERMARK_NAME));
+        LocalDateTime until = LocalDateTime.now();
+
+        long contactsChecked = 0;
+        long duplicatesFound = 0;
+        if (watermark.getWatermark() != null) {
+            LocalDateTime since = watermark.getWatermark().minusSeconds(overlapSeconds);
+            long afterId = Long.MIN_VALUE;
+            List<UserState> page;
+            do {
+                page = contactRepository.findModifiedBetween(since, until, afterId, PageRequest.of(0, pageSize));
+                for (UserState contact : page) {
+                    if (fingerprintIndex.get(contact.getId()) == null && !contactRepository.existsById(contact.getId())) {
+                        continue;
+                    }
+                    duplicatesFound += duplicateDetectionService.detectDuplicatesIncrementally(
+                        ContactFingerprint.of(contact)).size();
+                }
+                contactsChecked += page.size();
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == pageSize);
+        }
+
+        watermark.setWatermark(until);
+        watermark.setLastRunAt(LocalDateTime.now());
+        watermark.setContactsChecked(contactsChecked);
+        watermark.setDuplicatesFound(duplicatesFound);
+        watermarkRepository.save(watermark);
+        log.info("Watermark deduplication checked {} changed contacts, found {} new duplicates",
+            contactsChecked, duplicatesFound);
+    }
+}
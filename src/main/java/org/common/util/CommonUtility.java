@@ -7,7 +7,6 @@ import org.common.service.UserState;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 import java.util.UUID;
 
 public class CommonUtility {
@@ -126,11 +125,4 @@ public class CommonUtility {
         return category;
     }
 
-    public static Long generateUniqueContactId() {
-        long epoch = 1609459200000L; // Jan 1, 2021
-        long timestamp = System.currentTimeMillis();
-        long randomPart = new Random().nextInt(4096); // 12-bit random sequence
-        return ((timestamp - epoch) << 12) | randomPart;
-    }
-
 }
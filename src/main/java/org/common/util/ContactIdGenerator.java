@@ -0,0 +1,111 @@
+package org.common.util;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style generator of unique, time-ordered 63-bit ids for contacts and categories:
+ * 41 bits of milliseconds since 2021-01-01, a 10-bit worker id unique per instance and a
+ * 12-bit sequence within the millisecond.
+ *
+ * The last issued millisecond and sequence are held in one {@link AtomicLong} and advanced with
+ * compare-and-set, so callers never block. When a millisecond's 4096 sequence values run out, the
+ * next ids borrow from the following millisecond rather than wait for the clock. If the clock
+ * moves back, ids keep counting up from the last issued time, so they stay unique and increasing;
+ * only if the issued time gets more than {@code contacts.id.max-clock-skew-ms} ahead of the clock
+ * does generation fail. Ids issued here are always larger than those of the former
+ * {@code (millis << 12) | random} scheme, so both can share a table.
+ */
+@Component
+public class ContactIdGenerator {
+
+    public static final long EPOCH = 1609459200000L; // Jan 1, 2021
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_BITS = 10;
+    private static final int TIMESTAMP_BITS = 41;
+    private static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TIMESTAMP = (1L << TIMESTAMP_BITS) - 1;
+
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+
+    @Value("${contacts.id.worker-id:0}")
+    private long workerId;
+
+    @Value("${contacts.id.max-clock-skew-ms:5000}")
+    private long maxClockSkewMillis;
+
+    @PostConstruct
+    void validate() {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalStateException("contacts.id.worker-id must be between 0 and " + MAX_WORKER_ID);
+        }
+    }
+
+    public long nextId() {
+        return compose(reserve(1));
+    }
+
+    /**
+     * Pre-allocate count ids with a single compare-and-set, in increasing order
+     */
+    public long[] nextIds(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        long first = reserve(count);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = compose(first + i);
+        }
+        return ids;
+    }
+
+    /**
+     * The worker id of an id, i.e. which instance generated it
+     */
+    public static long workerIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+    }
+
+    /**
+     * Claim count consecutive (timestamp, sequence) values and return the first
+     */
+    private long reserve(int count) {
+        while (true) {
+            long last = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+
+            long first;
+            if (now > lastTimestamp) {
+                first = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond, sequence overflow or clock moved back: continue after the last id
+                if (lastTimestamp - now > maxClockSkewMillis) {
+                    throw new IllegalStateException("Clock is " + (lastTimestamp - now)
+                        + " ms behind the last issued id, refusing to generate ids");
+                }
+                first = last + 1;
+            }
+            long end = first + count - 1;
+            if ((end >>> SEQUENCE_BITS) > MAX_TIMESTAMP) {
+                throw new IllegalStateException("Id timestamp range exhausted");
+            }
+            if (state.compareAndSet(last, end)) {
+                return first;
+            }
+        }
+    }
+
+    private long compose(long value) {
+        return ((value >>> SEQUENCE_BITS) << (WORKER_BITS + SEQUENCE_BITS))
+            | (workerId << SEQUENCE_BITS)
+            | (value & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,117 @@
+package org.common.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV parser: one record per call, reading through a fixed-size buffer, so an
+ * upload of any size is parsed in constant memory. Quoted fields may contain commas, doubled
+ * quotes and line breaks; records may end with LF or CRLF.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private int pushedBack = NONE;
+    private int lineNumber = 1;
+    private int recordLineNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * The fields of the next record, or null at the end of the input
+     *
+     * @throws IllegalArgumentException if the input ends inside a quoted field
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLineNumber = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        while (true) {
+            if (inQuotes) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field in the record starting on line " + recordLineNumber);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    lineNumber++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0 && !quoted) {
+                inQuotes = true;
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                if (c != -1) {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Line on which the record last returned by {@link #readRecord()} starts, counting from 1
+     */
+    public int getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
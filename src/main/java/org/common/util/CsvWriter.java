@@ -0,0 +1,46 @@
+package org.common.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV writer, the counterpart of {@link CsvReader}: fields holding a comma, quote or
+ * line break are quoted, with quotes doubled; null is written as an empty field.
+ */
+public class CsvWriter {
+
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeRecord(List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(fields.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String field) throws IOException {
+        if (field == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
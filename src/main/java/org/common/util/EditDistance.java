@@ -0,0 +1,151 @@
+package org.common.util;
+
+/**
+ * Levenshtein distance kernels that do not allocate per call.
+ *
+ * Strings of up to 64 characters (Latin-1) are compared with Myers' bit-parallel algorithm,
+ * everything else with a two-row dynamic program restricted to a diagonal band.
+ * Scratch buffers are kept per thread, so the methods are safe to call concurrently.
+ */
+public final class EditDistance {
+
+    private static final int WORD_SIZE = 64;
+    private static final int ALPHABET_SIZE = 256;
+
+    private static final ThreadLocal<long[]> PATTERN_MASKS = ThreadLocal.withInitial(() -> new long[ALPHABET_SIZE]);
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][64]);
+
+    private EditDistance() {
+    }
+
+    /**
+     * Exact Levenshtein distance
+     */
+    public static int distance(String str1, String str2) {
+        return bounded(str1, str2, Math.max(str1.length(), str2.length()));
+    }
+
+    /**
+     * Levenshtein distance if it is at most maxDistance, otherwise maxDistance + 1.
+     * Pairs whose length difference alone exceeds the bound return without scanning.
+     */
+    public static int bounded(String str1, String str2, int maxDistance) {
+        // Keep the shorter string as the pattern
+        if (str1.length() > str2.length()) {
+            String swap = str1;
+            str1 = str2;
+            str2 = swap;
+        }
+        if (str2.length() - str1.length() > maxDistance) {
+            return maxDistance + 1;
+        }
+        if (str1.isEmpty()) {
+            return str2.length();
+        }
+        if (str1.length() <= WORD_SIZE && isLatin1(str1)) {
+            return bitParallel(str1, str2, maxDistance);
+        }
+        return banded(str1, str2, maxDistance);
+    }
+
+    /**
+     * Myers / Hyyrö bit-vector algorithm; the pattern must fit in one 64-bit word
+     */
+    private static int bitParallel(String pattern, String text, int maxDistance) {
+        long[] masks = PATTERN_MASKS.get();
+        int m = pattern.length();
+        for (int i = 0; i < m; i++) {
+            masks[pattern.charAt(i)] |= 1L << i;
+        }
+
+        long positive = -1L;
+        long negative = 0L;
+        long lastBit = 1L << (m - 1);
+        int score = m;
+        int n = text.length();
+        try {
+            for (int j = 0; j < n; j++) {
+                char c = text.charAt(j);
+                long eq = c < ALPHABET_SIZE ? masks[c] : 0L;
+                long xv = eq | negative;
+                long xh = (((eq & positive) + positive) ^ positive) | eq;
+                long hPositive = negative | ~(xh | positive);
+                long hNegative = positive & xh;
+                if ((hPositive & lastBit) != 0) {
+                    score++;
+                } else if ((hNegative & lastBit) != 0) {
+                    score--;
+                }
+                // Each remaining column can lower the score by at most one
+                if (score - (n - j - 1) > maxDistance) {
+                    return maxDistance + 1;
+                }
+                hPositive = (hPositive << 1) | 1L;
+                hNegative = hNegative << 1;
+                positive = hNegative | ~(xv | hPositive);
+                negative = hPositive & xv;
+            }
+        } finally {
+            for (int i = 0; i < m; i++) {
+                masks[pattern.charAt(i)] = 0L;
+            }
+        }
+        return score <= maxDistance ? score : maxDistance + 1;
+    }
+
+    /**
+     * Two-row dynamic program limited to cells within maxDistance of the diagonal
+     */
+    private static int banded(String str1, String str2, int maxDistance) {
+        int m = str1.length();
+        int n = str2.length();
+        int[][] rows = ROWS.get();
+        if (rows[0].length <= n) {
+            rows = new int[2][Integer.highestOneBit(n) << 1];
+            ROWS.set(rows);
+        }
+        int[] previous = rows[0];
+        int[] current = rows[1];
+        int outside = maxDistance + 1;
+
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j <= maxDistance ? j : outside;
+        }
+
+        for (int i = 1; i <= m; i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(n, i + maxDistance);
+            current[0] = i <= maxDistance ? i : outside;
+            if (from > 1) {
+                current[from - 1] = outside;
+            }
+            int rowMin = current[0];
+            char c = str1.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = c == str2.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = Math.min(value, outside);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < n) {
+                current[to + 1] = outside;
+            }
+            if (rowMin > maxDistance) {
+                return outside;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[n], outside);
+    }
+
+    private static boolean isLatin1(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (str.charAt(i) >= ALPHABET_SIZE) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package org.common.util;
+
+/**
+ * Open-addressing hash set of unordered (long, long) pairs.
+ *
+ * A pair is stored as (min, max), so add(a, b) and contains(b, a) refer to the same entry.
+ * Keys live in two primitive arrays, which keeps a few hundred thousand pairs in a
+ * handful of megabytes without boxing. Not thread-safe.
+ */
+public class LongPairSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] lows;
+    private long[] highs;
+    private boolean[] used;
+    private int size;
+
+    public LongPairSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongPairSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 < expectedSize * 4) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Add a pair, returns false if it was already present
+     */
+    public boolean add(long a, long b) {
+        if ((size + 1) * 4 > lows.length * 3) {
+            resize(lows.length << 1);
+        }
+        long low = Math.min(a, b);
+        long high = Math.max(a, b);
+        int mask = lows.length - 1;
+        int slot = hash(low, high) & mask;
+        while (used[slot]) {
+            if (lows[slot] == low && highs[slot] == high) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        lows[slot] = low;
+        highs[slot] = high;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long a, long b) {
+        long low = Math.min(a, b);
+        long high = Math.max(a, b);
+        int mask = lows.length - 1;
+        int slot = hash(low, high) & mask;
+        while (used[slot]) {
+            if (lows[slot] == low && highs[slot] == high) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void allocate(int capacity) {
+        lows = new long[capacity];
+        highs = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    private void resize(int capacity) {
+        long[] oldLows = lows;
+        long[] oldHighs = highs;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                add(oldLows[i], oldHighs[i]);
+            }
+        }
+    }
+
+    private static int hash(long low, long high) {
+        long h = low * 0x9E3779B97F4A7C15L + high;
+        h ^= (h >>> 32);
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 29));
+    }
+}
@@ -0,0 +1,153 @@
+package org.common.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Streaming vCard (2.1 / 3.0 / 4.0) parser returning one card at a time.
+ *
+ * Folded lines are joined, property groups and parameters are dropped, and property names are
+ * upper-cased. Values are returned raw, still escaped, because structured values such as N must be
+ * split on their separators first; {@link #splitValue(String, char)} does both.
+ */
+public class VCardReader implements Closeable {
+
+    private final BufferedReader reader;
+    private String lookahead;
+    private int physicalLineNumber;
+    private int lineNumber;
+    private int lookaheadLineNumber;
+    private int cardLineNumber;
+
+    public VCardReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * The properties of the next card by name, values in file order, or null at the end of the input
+     *
+     * @throws IllegalArgumentException if the input ends inside a card
+     */
+    public Map<String, List<String>> readCard() throws IOException {
+        String line;
+        do {
+            line = readUnfoldedLine();
+            if (line == null) {
+                return null;
+            }
+        } while (!line.trim().equalsIgnoreCase("BEGIN:VCARD"));
+        cardLineNumber = lineNumber;
+
+        Map<String, List<String>> properties = new LinkedHashMap<>();
+        while ((line = readUnfoldedLine()) != null) {
+            if (line.trim().equalsIgnoreCase("END:VCARD")) {
+                return properties;
+            }
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String name = line.substring(0, colon);
+            int parameters = name.indexOf(';');
+            if (parameters >= 0) {
+                name = name.substring(0, parameters);
+            }
+            int group = name.lastIndexOf('.');
+            if (group >= 0) {
+                name = name.substring(group + 1);
+            }
+            properties.computeIfAbsent(name.trim().toUpperCase(Locale.ROOT), k -> new ArrayList<>())
+                .add(line.substring(colon + 1));
+        }
+        throw new IllegalArgumentException("Unterminated vCard starting on line " + cardLineNumber);
+    }
+
+    /**
+     * Line of the BEGIN:VCARD of the card last returned by {@link #readCard()}, counting from 1
+     */
+    public int getCardLineNumber() {
+        return cardLineNumber;
+    }
+
+    /**
+     * Split a raw value on unescaped separators and unescape each component
+     */
+    public static List<String> splitValue(String value, char separator) {
+        List<String> components = new ArrayList<>();
+        StringBuilder component = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                component.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else if (c == separator) {
+                components.add(component.toString());
+                component.setLength(0);
+            } else {
+                component.append(c);
+            }
+        }
+        components.add(component.toString());
+        return components;
+    }
+
+    /**
+     * Unescape a raw single value
+     */
+    public static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                unescaped.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    private String readUnfoldedLine() throws IOException {
+        String line;
+        if (lookahead != null) {
+            line = lookahead;
+            lineNumber = lookaheadLineNumber;
+            lookahead = null;
+        } else {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber = ++physicalLineNumber;
+        }
+
+        // Continuation lines start with a space or tab, which is removed
+        StringBuilder unfolded = null;
+        String next;
+        while ((next = reader.readLine()) != null) {
+            physicalLineNumber++;
+            if (next.isEmpty() || (next.charAt(0) != ' ' && next.charAt(0) != '\t')) {
+                lookahead = next;
+                lookaheadLineNumber = physicalLineNumber;
+                break;
+            }
+            if (unfolded == null) {
+                unfolded = new StringBuilder(line);
+            }
+            unfolded.append(next, 1, next.length());
+        }
+        return unfolded != null ? unfolded.toString() : line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
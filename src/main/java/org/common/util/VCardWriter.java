@@ -0,0 +1,87 @@
+package org.common.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * vCard 3.0 writer, the counterpart of {@link VCardReader}. Text values are escaped and lines
+ * longer than 75 characters are folded.
+ */
+public class VCardWriter {
+
+    private static final int MAX_LINE_LENGTH = 75;
+
+    private final Writer writer;
+
+    public VCardWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void beginCard() throws IOException {
+        writeLine("BEGIN:VCARD");
+        writeLine("VERSION:3.0");
+    }
+
+    public void endCard() throws IOException {
+        writeLine("END:VCARD");
+    }
+
+    /**
+     * Write a property whose value is a single text; nothing is written for a null value
+     */
+    public void writeProperty(String name, String value) throws IOException {
+        if (value != null) {
+            writeLine(name + ":" + escape(value));
+        }
+    }
+
+    /**
+     * Write a property whose value is a list of texts joined by the given separator,
+     * such as N (';') or CATEGORIES (',')
+     */
+    public void writeProperty(String name, List<String> components, char separator) throws IOException {
+        StringBuilder line = new StringBuilder(name).append(':');
+        for (int i = 0; i < components.size(); i++) {
+            if (i > 0) {
+                line.append(separator);
+            }
+            if (components.get(i) != null) {
+                line.append(escape(components.get(i)));
+            }
+        }
+        writeLine(line.toString());
+    }
+
+    private void writeLine(String line) throws IOException {
+        int start = 0;
+        int limit = MAX_LINE_LENGTH;
+        while (line.length() - start > limit) {
+            int end = start + limit;
+            if (Character.isHighSurrogate(line.charAt(end - 1))) {
+                end--;
+            }
+            writer.write(line, start, end - start);
+            writer.write("\r\n ");
+            start = end;
+            // Continuation lines start with a space, which counts towards their length
+            limit = MAX_LINE_LENGTH - 1;
+        }
+        writer.write(line, start, line.length() - start);
+        writer.write("\r\n");
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ',', ';' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> { }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
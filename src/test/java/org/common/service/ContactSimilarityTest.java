@@ -0,0 +1,227 @@
+package org.common.service;
+
+import org.common.util.MatrixLevenshtein;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the bounded name scores against the original unbounded name scoring: scores that reach
+ * the requested minimum must be identical, lower ones must stay below it, and the length-based
+ * bound must never be below the score.
+ */
+class ContactSimilarityTest {
+
+    private static final String[] FIRST_NAMES = {
+        "John", "Jon", "Johnny", "Jane", "Janet", "Mary", "Marie", "Robert", "Rob", "Bob", "Ann", "Anne",
+        "José", "Jose", "Zoë", "Zoe", "Li", "Christopher", "Kristopher", "Ωmega", "中文", null, "", " "
+    };
+    private static final String[] MIDDLE_NAMES = { null, "", "A", "J.", "Marie", "Ann Marie" };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Smyth", "Smithe", "Doe", "Brown", "Browne", "Lee", "Li", "O'Neil", "Oneil", "Johnson",
+        "Jonson", "Van Der Berg", "Vandenberg", "Müller", "Muller", null, ""
+    };
+    // 0.5 is below NAME_COMPONENT_THRESHOLD * SINGLE_COMPONENT_WEIGHT, where component scores must be exact lower down
+    private static final double[] MIN_SCORES = { 0.75, 0.6, 0.5 };
+
+    @Test
+    void levenshteinScoresMatchUnboundedScores() {
+        Random random = new Random(4);
+        for (int i = 0; i < 20000; i++) {
+            String str1 = randomName(random);
+            String str2 = random.nextInt(4) == 0 ? randomName(random) : typo(random, str1);
+            if (str1.isEmpty() && str2.isEmpty()) {
+                continue;
+            }
+            double expected = levenshteinScore(str1, str2);
+            for (double minScore : MIN_SCORES) {
+                assertBoundedScore(expected, ContactSimilarity.boundedLevenshteinScore(str1, str2, minScore),
+                        minScore, str1 + " / " + str2);
+            }
+        }
+    }
+
+    @Test
+    void nameScoresMatchUnboundedScores() {
+        Random random = new Random(5);
+        for (int i = 0; i < 50000; i++) {
+            UserState contact1 = randomContact(random);
+            UserState contact2 = random.nextBoolean() ? randomContact(random) : variant(random, contact1);
+            double expected = originalNameSimilarity(contact1, contact2);
+            ContactFingerprint fingerprint1 = ContactFingerprint.of(contact1);
+            ContactFingerprint fingerprint2 = ContactFingerprint.of(contact2);
+            for (double minScore : MIN_SCORES) {
+                assertBoundedScore(expected, ContactSimilarity.nameSimilarity(fingerprint1, fingerprint2, minScore),
+                        minScore, describe(contact1) + " / " + describe(contact2));
+            }
+        }
+    }
+
+    @Test
+    void nameBoundIsAtLeastTheScore() {
+        Random random = new Random(6);
+        for (int i = 0; i < 50000; i++) {
+            UserState contact1 = randomContact(random);
+            UserState contact2 = random.nextBoolean() ? randomContact(random) : variant(random, contact1);
+            double score = originalNameSimilarity(contact1, contact2);
+            double bound = ContactSimilarity.nameSimilarityBound(ContactFingerprint.of(contact1), ContactFingerprint.of(contact2));
+            assertTrue(bound >= score, () -> describe(contact1) + " / " + describe(contact2) + ": bound " + bound + " below " + score);
+        }
+    }
+
+    @Test
+    void longNamesMatchUnboundedScores() {
+        // Full names over 64 characters are scored with the banded kernel
+        UserState contact1 = contact("Christopher Alexander", "Montgomery-Fitzgerald Wolfeschlegel", "Van Der Berg Steinhausen");
+        UserState contact2 = contact("Kristopher Alexandre", "Montgomery Fitzgerald Wolfeschlegl", "Van Den Berg Steinhausen");
+        double expected = originalNameSimilarity(contact1, contact2);
+        assertEquals(expected, ContactSimilarity.nameSimilarity(
+                ContactFingerprint.of(contact1), ContactFingerprint.of(contact2), 0.75));
+    }
+
+    @Test
+    void lowThresholdScoresMatchUnboundedScores() {
+        // A single similar component, weighted by 0.7, decides these scores
+        String[][] pairs = {
+            { "Christopher", null, "Nguyen", "Kristofer", null, "Brown" },
+            { "Christopher", "Maria Del Carmen", "Smith", "Kristofer", "Maria Del Carmen", "Wolfeschlegelsteinhausen" },
+        };
+        for (String[] pair : pairs) {
+            UserState contact1 = contact(pair[0], pair[1], pair[2]);
+            UserState contact2 = contact(pair[3], pair[4], pair[5]);
+            double expected = originalNameSimilarity(contact1, contact2);
+            assertTrue(expected >= 0.5 && expected < 0.56, () -> describe(contact1) + " scores " + expected);
+            assertEquals(expected, ContactSimilarity.nameSimilarity(
+                    ContactFingerprint.of(contact1), ContactFingerprint.of(contact2), 0.5), describe(contact1));
+        }
+    }
+
+    private static void assertBoundedScore(double expected, double actual, double minScore, String pair) {
+        if (expected >= minScore) {
+            assertEquals(expected, actual, pair);
+        } else {
+            assertTrue(actual < minScore, () -> pair + ": " + actual + " reaches " + minScore + ", expected " + expected);
+        }
+    }
+
+    // --- The name scoring as it was before the bounded kernel ---
+
+    private static double originalNameSimilarity(UserState contact1, UserState contact2) {
+        String fullName1 = buildFullName(contact1).toLowerCase().trim();
+        String fullName2 = buildFullName(contact2).toLowerCase().trim();
+
+        if (fullName1.isEmpty() || fullName2.isEmpty()) {
+            return 0.0;
+        }
+        if (fullName1.equals(fullName2)) {
+            return 1.0;
+        }
+
+        double levenshteinScore = levenshteinScore(fullName1, fullName2);
+
+        Set<String> words1 = new HashSet<>(Arrays.asList(fullName1.split("\\s+")));
+        Set<String> words2 = new HashSet<>(Arrays.asList(fullName2.split("\\s+")));
+        Set<String> intersection = new HashSet<>(words1);
+        intersection.retainAll(words2);
+        Set<String> union = new HashSet<>(words1);
+        union.addAll(words2);
+        double jaccardScore = union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
+
+        double firstNameScore = componentScore(contact1.getFirstName(), contact2.getFirstName());
+        double lastNameScore = componentScore(contact1.getLastName(), contact2.getLastName());
+        double componentScore = firstNameScore > 0.8 && lastNameScore > 0.8
+                ? (firstNameScore + lastNameScore) / 2
+                : Math.max(firstNameScore, lastNameScore) * 0.7;
+
+        return Math.max(Math.max(levenshteinScore, jaccardScore), componentScore);
+    }
+
+    private static double componentScore(String name1, String name2) {
+        if (!hasValidName(name1) || !hasValidName(name2)) {
+            return 0.0;
+        }
+        String normalized1 = name1.toLowerCase().trim();
+        String normalized2 = name2.toLowerCase().trim();
+        return normalized1.equals(normalized2) ? 1.0 : levenshteinScore(normalized1, normalized2);
+    }
+
+    private static double levenshteinScore(String str1, String str2) {
+        return 1.0 - (double) MatrixLevenshtein.distance(str1, str2) / Math.max(str1.length(), str2.length());
+    }
+
+    private static boolean hasValidName(String name) {
+        return name != null && !name.trim().isEmpty();
+    }
+
+    private static String buildFullName(UserState contact) {
+        StringBuilder fullName = new StringBuilder();
+        if (hasValidName(contact.getFirstName())) {
+            fullName.append(contact.getFirstName().trim());
+        }
+        if (hasValidName(contact.getMiddleName())) {
+            if (fullName.length() > 0) fullName.append(" ");
+            fullName.append(contact.getMiddleName().trim());
+        }
+        if (hasValidName(contact.getLastName())) {
+            if (fullName.length() > 0) fullName.append(" ");
+            fullName.append(contact.getLastName().trim());
+        }
+        return fullName.toString();
+    }
+
+    // --- Test data ---
+
+    private static UserState randomContact(Random random) {
+        return contact(pick(random, FIRST_NAMES), pick(random, MIDDLE_NAMES), pick(random, LAST_NAMES));
+    }
+
+    /**
+     * The same contact with typos, a dropped middle name or swapped first and last names
+     */
+    private static UserState variant(Random random, UserState original) {
+        return switch (random.nextInt(4)) {
+            case 0 -> contact(original.getLastName(), original.getMiddleName(), original.getFirstName());
+            case 1 -> contact(original.getFirstName(), null, original.getLastName());
+            default -> contact(typo(random, original.getFirstName()), original.getMiddleName(),
+                    random.nextBoolean() ? typo(random, original.getLastName()) : original.getLastName());
+        };
+    }
+
+    private static UserState contact(String firstName, String middleName, String lastName) {
+        UserState contact = new UserState();
+        contact.setFirstName(firstName);
+        contact.setMiddleName(middleName);
+        contact.setLastName(lastName);
+        return contact;
+    }
+
+    private static String randomName(Random random) {
+        String name = pick(random, FIRST_NAMES);
+        return name == null ? "" : name.toLowerCase();
+    }
+
+    private static String typo(Random random, String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        StringBuilder typo = new StringBuilder(value);
+        int position = random.nextInt(value.length());
+        switch (random.nextInt(3)) {
+            case 0 -> typo.deleteCharAt(position);
+            case 1 -> typo.insert(position, (char) ('a' + random.nextInt(26)));
+            default -> typo.setCharAt(position, (char) ('a' + random.nextInt(26)));
+        }
+        return typo.toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String describe(UserState contact) {
+        return contact.getFirstName() + "|" + contact.getMiddleName() + "|" + contact.getLastName();
+    }
+}
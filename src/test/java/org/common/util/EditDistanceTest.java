@@ -0,0 +1,138 @@
+package org.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks EditDistance against the full-matrix Levenshtein implementation it replaced.
+ */
+class EditDistanceTest {
+
+    // Latin-1 only, so patterns of up to 64 characters take the bit-parallel path
+    private static final String LATIN_ALPHABET = "abcde xyzéñüJ.'-";
+    // Characters outside Latin-1, including a surrogate pair, force the banded path
+    private static final String UNICODE_ALPHABET = "abcé Ωжø中文😀";
+    // Every bound is checked up to this length, a sample of bounds beyond it
+    private static final int ALL_BOUNDS_LENGTH = 80;
+
+    @Test
+    void edgeCases() {
+        String[][] pairs = {
+            { "", "" },
+            { "", "a" },
+            { "abc", "" },
+            { "a", "a" },
+            { "a", "b" },
+            { "kitten", "sitting" },
+            { "flaw", "lawn" },
+            { "john smith", "smith john" },
+            { "josé", "jose" },
+            { "zoë", "zoe" },
+            { "Ωmega", "omega" },
+            { "中文名字", "中文名" },
+            { "😀a", "a😀" },
+            { "a".repeat(64), "a".repeat(63) + "b" },
+            { "a".repeat(64), "a".repeat(65) },
+            { "ab".repeat(40), "ba".repeat(40) },
+            { "x".repeat(100), "" },
+            { "christopher alexander van der berg-montgomery", "kristopher alexandre van den berg montgomery" },
+        };
+        for (String[] pair : pairs) {
+            assertMatchesOracle(pair[0], pair[1]);
+            assertMatchesOracle(pair[1], pair[0]);
+        }
+    }
+
+    @Test
+    void randomLatin1Strings() {
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            String str1 = randomString(random, LATIN_ALPHABET, random.nextInt(80));
+            String str2 = random.nextBoolean()
+                    ? mutate(random, str1, LATIN_ALPHABET)
+                    : randomString(random, LATIN_ALPHABET, random.nextInt(80));
+            assertMatchesOracle(str1, str2);
+        }
+    }
+
+    @Test
+    void randomUnicodeStrings() {
+        Random random = new Random(2);
+        for (int i = 0; i < 5000; i++) {
+            String str1 = randomString(random, UNICODE_ALPHABET, random.nextInt(40));
+            String str2 = mutate(random, str1, UNICODE_ALPHABET);
+            assertMatchesOracle(str1, str2);
+        }
+    }
+
+    @Test
+    void randomLongStrings() {
+        // Patterns over 64 characters take the banded path even when they are Latin-1
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            String str1 = randomString(random, LATIN_ALPHABET, 65 + random.nextInt(200));
+            String str2 = mutate(random, str1, LATIN_ALPHABET);
+            assertMatchesOracle(str1, str2);
+        }
+    }
+
+    /**
+     * distance is exact, and bounded is exact up to the bound and bound + 1 beyond it
+     */
+    private static void assertMatchesOracle(String str1, String str2) {
+        int expected = MatrixLevenshtein.distance(str1, str2);
+        assertEquals(expected, EditDistance.distance(str1, str2), () -> describe(str1, str2, -1));
+        int longer = Math.max(str1.length(), str2.length());
+        for (int maxDistance = 0; maxDistance <= longer + 1; maxDistance++) {
+            if (longer > ALL_BOUNDS_LENGTH && maxDistance > 10 && Math.abs(maxDistance - expected) > 1
+                    && maxDistance < longer) {
+                continue;
+            }
+            int bound = maxDistance;
+            assertEquals(Math.min(expected, maxDistance + 1), EditDistance.bounded(str1, str2, maxDistance),
+                    () -> describe(str1, str2, bound));
+        }
+    }
+
+    private static String describe(String str1, String str2, int maxDistance) {
+        return "\"" + str1 + "\" vs \"" + str2 + "\"" + (maxDistance >= 0 ? " within " + maxDistance : "");
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        int[] codePoints = alphabet.codePoints().toArray();
+        while (builder.length() < length) {
+            builder.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A copy with a few random insertions, deletions and substitutions
+     */
+    private static String mutate(Random random, String value, String alphabet) {
+        StringBuilder builder = new StringBuilder(value);
+        int edits = random.nextInt(6);
+        for (int i = 0; i < edits; i++) {
+            char c = alphabet.charAt(random.nextInt(alphabet.length()));
+            int position = random.nextInt(builder.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0 -> builder.insert(position, c);
+                case 1 -> {
+                    if (position < builder.length()) {
+                        builder.deleteCharAt(position);
+                    }
+                }
+                default -> {
+                    if (position < builder.length()) {
+                        builder.setCharAt(position, c);
+                    }
+                }
+            }
+        }
+        return builder.toString();
+    }
+}
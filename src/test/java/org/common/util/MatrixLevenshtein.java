@@ -0,0 +1,34 @@
+package org.common.util;
+
+/**
+ * The original O(n * m) matrix Levenshtein implementation, kept as the reference for
+ * {@link EditDistance} and the similarity scores built on it.
+ */
+public final class MatrixLevenshtein {
+
+    private MatrixLevenshtein() {
+    }
+
+    public static int distance(String str1, String str2) {
+        int[][] dp = new int[str1.length() + 1][str2.length() + 1];
+
+        for (int i = 0; i <= str1.length(); i++) {
+            dp[i][0] = i;
+        }
+        for (int j = 0; j <= str2.length(); j++) {
+            dp[0][j] = j;
+        }
+
+        for (int i = 1; i <= str1.length(); i++) {
+            for (int j = 1; j <= str2.length(); j++) {
+                if (str1.charAt(i - 1) == str2.charAt(j - 1)) {
+                    dp[i][j] = dp[i - 1][j - 1];
+                } else {
+                    dp[i][j] = 1 + Math.min(Math.min(dp[i - 1][j], dp[i][j - 1]), dp[i - 1][j - 1]);
+                }
+            }
+        }
+
+        return dp[str1.length()][str2.length()];
+    }
+}